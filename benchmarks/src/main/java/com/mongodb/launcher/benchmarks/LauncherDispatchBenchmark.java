@@ -0,0 +1,101 @@
+package com.mongodb.launcher.benchmarks;
+
+import com.mongodb.launcher.AtlasClusterSpec;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.ClusterLauncher;
+import com.mongodb.launcher.ClusterManager;
+import com.mongodb.launcher.ClusterSpec;
+import com.mongodb.launcher.LocalClusterSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ClusterManager.findLauncher streams over the launcher list on every stop, destroy and status
+// call. The launchers here answer immediately, so the numbers are the dispatch alone; the
+// matching launcher is last in the list, behind extraLaunchers that support nothing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LauncherDispatchBenchmark {
+    
+    @Param({"0", "8"})
+    private int extraLaunchers;
+    
+    private ClusterManager manager;
+    private ClusterInstance local;
+    private ClusterInstance atlas;
+    
+    @Setup
+    public void setup() {
+        List<ClusterLauncher<?>> launchers = new ArrayList<>();
+        for (int i = 0; i < extraLaunchers; i++) {
+            launchers.add(new StaticLauncher<>(UnsupportedSpec.class));
+        }
+        launchers.add(new StaticLauncher<>(AtlasClusterSpec.class));
+        launchers.add(new StaticLauncher<>(LocalClusterSpec.class));
+        manager = new ClusterManager(launchers);
+        
+        local = new ClusterInstance("local-bench", "bench", new LocalClusterSpec("bench", "7.0.0"));
+        atlas = new ClusterInstance("atlas-bench", "bench", new AtlasClusterSpec("bench", "7.0.0"));
+    }
+    
+    @Benchmark
+    public ClusterInstance.Status dispatchLocal() throws ClusterLaunchException {
+        return manager.getStatus(local);
+    }
+    
+    @Benchmark
+    public ClusterInstance.Status dispatchAtlas() throws ClusterLaunchException {
+        return manager.getStatus(atlas);
+    }
+    
+    private static class StaticLauncher<T extends ClusterSpec> implements ClusterLauncher<T> {
+        private final Class<T> specType;
+        
+        StaticLauncher(Class<T> specType) {
+            this.specType = specType;
+        }
+        
+        @Override
+        public ClusterInstance launch(T spec) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public void stop(ClusterInstance instance) {
+        }
+        
+        @Override
+        public void destroy(ClusterInstance instance) {
+        }
+        
+        @Override
+        public ClusterInstance.Status getStatus(ClusterInstance instance) {
+            return ClusterInstance.Status.READY;
+        }
+        
+        @Override
+        public boolean supports(ClusterSpec spec) {
+            return specType.isInstance(spec);
+        }
+    }
+    
+    private abstract static class UnsupportedSpec extends ClusterSpec {
+    }
+}
@@ -0,0 +1,73 @@
+package com.mongodb.launcher.benchmarks;
+
+import com.mongodb.launcher.version.MongoVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Parsing runs the version regex on every call; sorting is what getInstalledVersions and
+// getAvailableVersions do with every result
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoVersionBenchmark {
+    
+    private static final int BATCH = 500;
+    
+    @Param({"100", "500"})
+    private int versionCount;
+    
+    private List<String> names;
+    private List<MongoVersion> versions;
+    
+    @Setup
+    public void setup() {
+        names = VersionFixtures.shuffled(VersionFixtures.versionNames(versionCount), 42);
+        versions = new ArrayList<>();
+        for (String name : names) {
+            versions.add(new MongoVersion(name));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parse(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(new MongoVersion(names.get(i % names.size())));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void compareTo(Blackhole blackhole) {
+        int size = versions.size();
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(versions.get(i % size).compareTo(versions.get((i * 31 + 7) % size)));
+        }
+    }
+    
+    @Benchmark
+    public List<MongoVersion> sortDescending() {
+        List<MongoVersion> copy = new ArrayList<>(versions);
+        copy.sort(Collections.reverseOrder());
+        return copy;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mongodb.launcher.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.launcher.ClusterSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// ClusterSpec is read through its "type" discriminator. The CLI builds a new ObjectMapper for
+// every spec file, so the cost of a cold mapper is measured next to a shared one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecDeserializationBenchmark {
+    
+    private static final String LOCAL_SPEC = "{\n"
+        + "  \"type\": \"local\",\n"
+        + "  \"name\": \"bench-replset\",\n"
+        + "  \"mongoVersion\": \"7.0\",\n"
+        + "  \"port\": 27017,\n"
+        + "  \"topology\": \"REPLICA_SET\",\n"
+        + "  \"replicaSetSize\": 3,\n"
+        + "  \"enableAuth\": false,\n"
+        + "  \"dataPath\": \"/tmp/mongo-launcher/data\",\n"
+        + "  \"logPath\": \"/tmp/mongo-launcher/logs/mongod.log\"\n"
+        + "}";
+    
+    // The discriminator last, so Jackson has to buffer the properties before it
+    private static final String LOCAL_SPEC_TYPE_LAST = "{\n"
+        + "  \"name\": \"bench-sharded\",\n"
+        + "  \"mongoVersion\": \"7.0\",\n"
+        + "  \"port\": 0,\n"
+        + "  \"topology\": \"SHARDED\",\n"
+        + "  \"shardCount\": 2,\n"
+        + "  \"replicaSetSize\": 3,\n"
+        + "  \"configServerCount\": 1,\n"
+        + "  \"mongosCount\": 1,\n"
+        + "  \"storage\": \"MEMORY\",\n"
+        + "  \"type\": \"local\"\n"
+        + "}";
+    
+    private static final String ATLAS_SPEC = "{\n"
+        + "  \"type\": \"atlas\",\n"
+        + "  \"name\": \"bench-atlas\",\n"
+        + "  \"mongoVersion\": \"7.0\",\n"
+        + "  \"projectId\": \"5f1e2d3c4b5a69788796a5b4\",\n"
+        + "  \"instanceSize\": \"M10\"\n"
+        + "}";
+    
+    private ObjectMapper mapper;
+    
+    @Setup
+    public void setup() throws IOException {
+        mapper = new ObjectMapper();
+        // Fail at setup rather than measuring exceptions if a fixture no longer matches the model
+        mapper.readValue(LOCAL_SPEC, ClusterSpec.class);
+        mapper.readValue(LOCAL_SPEC_TYPE_LAST, ClusterSpec.class);
+        mapper.readValue(ATLAS_SPEC, ClusterSpec.class);
+    }
+    
+    @Benchmark
+    public ClusterSpec local() throws IOException {
+        return mapper.readValue(LOCAL_SPEC, ClusterSpec.class);
+    }
+    
+    @Benchmark
+    public ClusterSpec localTypeLast() throws IOException {
+        return mapper.readValue(LOCAL_SPEC_TYPE_LAST, ClusterSpec.class);
+    }
+    
+    @Benchmark
+    public ClusterSpec atlas() throws IOException {
+        return mapper.readValue(ATLAS_SPEC, ClusterSpec.class);
+    }
+    
+    @Benchmark
+    public ClusterSpec localWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(LOCAL_SPEC, ClusterSpec.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mongodb.launcher.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Generated version names and m-style install trees, so each benchmark runs against hundreds of
+// versions instead of whatever happens to be installed on the machine
+final class VersionFixtures {
+    
+    private static final String[] PRE_RELEASES = {"rc0", "rc1", "alpha", "ent"};
+    
+    private VersionFixtures() {}
+    
+    // count distinct version strings in release order, from 3.0.0 upwards, with every seventh one
+    // a pre-release and every tenth one without a patch number
+    static List<String> versionNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        int major = 3;
+        int minor = 0;
+        int patch = 0;
+        for (int i = 0; i < count; i++) {
+            String name = major + "." + minor + (i % 10 == 0 && patch == 0 ? "" : "." + patch);
+            if (i % 7 == 3) {
+                name += "-" + PRE_RELEASES[i % PRE_RELEASES.length];
+            }
+            names.add(name);
+            
+            if (++patch > 24) {
+                patch = 0;
+                if (++minor > 3) {
+                    minor = 0;
+                    major++;
+                }
+            }
+        }
+        return names;
+    }
+    
+    // The same names in a fixed random order
+    static List<String> shuffled(List<String> names, long seed) {
+        List<String> copy = new ArrayList<>(names);
+        Collections.shuffle(copy, new Random(seed));
+        return copy;
+    }
+    
+    // One directory per version with an empty bin/mongod, plus a few entries m leaves around
+    // that are not versions and must be skipped
+    static void createInstallTree(Path versionsDir, List<String> names) throws IOException {
+        Files.createDirectories(versionsDir);
+        for (String name : names) {
+            Path bin = Files.createDirectories(versionsDir.resolve(name).resolve("bin"));
+            Files.createFile(bin.resolve("mongod"));
+        }
+        Files.createDirectories(versionsDir.resolve("tmp"));
+        Files.createFile(versionsDir.resolve(".DS_Store"));
+    }
+    
+    static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
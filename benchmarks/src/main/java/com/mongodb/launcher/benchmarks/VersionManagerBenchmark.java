@@ -0,0 +1,100 @@
+package com.mongodb.launcher.benchmarks;
+
+import com.mongodb.launcher.version.MongoVersion;
+import com.mongodb.launcher.version.MongoVersionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Version lookups scan the launcher's versions directory and the usual m locations on every
+// call. The fixture puts versionCount versions in the launcher's directory and as many again
+// under ~/.local/m/versions, with user.home pointed at a temp directory for the whole fork so
+// the machine's real installs do not skew the numbers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionManagerBenchmark {
+    
+    @Param({"100", "500"})
+    private int versionCount;
+    
+    private Path root;
+    private String originalHome;
+    private MongoVersionManager manager;
+    
+    private MongoVersion inPrimaryLocation;
+    private MongoVersion inUserLocation;
+    private MongoVersion notInstalled;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("mongo-launcher-bench-");
+        List<String> names = VersionFixtures.versionNames(versionCount * 2);
+        List<String> primary = names.subList(0, versionCount);
+        List<String> user = names.subList(versionCount, names.size());
+        
+        Path home = root.resolve("home");
+        VersionFixtures.createInstallTree(root.resolve("launcher").resolve("versions"), primary);
+        VersionFixtures.createInstallTree(home.resolve(".local").resolve("m").resolve("versions"), user);
+        
+        originalHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        manager = new MongoVersionManager(root.resolve("launcher").resolve("versions"));
+        
+        inPrimaryLocation = new MongoVersion(primary.get(primary.size() / 2));
+        inUserLocation = new MongoVersion(user.get(user.size() / 2));
+        notInstalled = new MongoVersion("99.0.0");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setProperty("user.home", originalHome);
+        VersionFixtures.deleteRecursively(root);
+    }
+    
+    @Benchmark
+    public List<MongoVersion> getInstalledVersions() {
+        return manager.getInstalledVersions();
+    }
+    
+    // findVersionDir is private; these reach it through the public lookups the launcher uses
+    
+    @Benchmark
+    public boolean findVersionDirPrimaryHit() {
+        return manager.isVersionInstalled(inPrimaryLocation);
+    }
+    
+    @Benchmark
+    public boolean findVersionDirUserHit() {
+        return manager.isVersionInstalled(inUserLocation);
+    }
+    
+    @Benchmark
+    public Path findVersionDirMiss() {
+        return manager.getVersionDir(notInstalled);
+    }
+    
+    @Benchmark
+    public MongoVersion findVersionByPrefix() throws IOException {
+        return manager.findVersion(inUserLocation.getMajor() + "." + inUserLocation.getMinor());
+    }
+}
@@ -0,0 +1,39 @@
+package com.mongodb.launcher;
+
+// Outcome of one cluster in a batch launch or destroy. A failed cluster carries its error
+// instead of aborting the rest of the batch.
+public class BatchResult {
+    
+    private final String name;
+    private final ClusterInstance instance;
+    private final ClusterLaunchException error;
+    private final long durationMillis;
+    
+    BatchResult(String name, ClusterInstance instance, ClusterLaunchException error, long durationMillis) {
+        this.name = name;
+        this.instance = instance;
+        this.error = error;
+        this.durationMillis = durationMillis;
+    }
+    
+    public boolean isSuccess() {
+        return error == null;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    // The launched or destroyed cluster; null when a launch failed
+    public ClusterInstance getInstance() {
+        return instance;
+    }
+    
+    public ClusterLaunchException getError() {
+        return error;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.mongodb.launcher;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ClusterInstance {
@@ -13,6 +16,7 @@ public class ClusterInstance {
     private LocalDateTime createdAt;
     private LocalDateTime lastUpdated;
     private Map<String, Object> metadata;
+    private List<ClusterMember> members = new ArrayList<>();
     
     public ClusterInstance() {}
     
@@ -90,6 +94,21 @@ public class ClusterInstance {
         this.metadata = metadata;
     }
     
+    public void putMetadata(String key, Object value) {
+        if (metadata == null) {
+            metadata = new LinkedHashMap<>();
+        }
+        metadata.put(key, value);
+    }
+    
+    public List<ClusterMember> getMembers() {
+        return members;
+    }
+    
+    public void setMembers(List<ClusterMember> members) {
+        this.members = members;
+    }
+    
     public enum Status {
         CREATING, READY, STARTING, STOPPING, STOPPED, ERROR, DESTROYED
     }
@@ -1,5 +1,9 @@
 package com.mongodb.launcher;
 
+import com.mongodb.launcher.util.AsyncSupport;
+
+import java.util.concurrent.CompletableFuture;
+
 public interface ClusterLauncher<T extends ClusterSpec> {
     
     ClusterInstance launch(T spec) throws ClusterLaunchException;
@@ -11,4 +15,32 @@ public interface ClusterLauncher<T extends ClusterSpec> {
     ClusterInstance.Status getStatus(ClusterInstance instance) throws ClusterLaunchException;
     
     boolean supports(ClusterSpec spec);
+    
+    // Non-blocking forms of the operations above. Cancelling the future returned by launchAsync
+    // aborts the launch at its next phase and releases whatever it had already started. The
+    // defaults run the blocking call on a shared pool of daemon threads; launchers that can wait
+    // without holding a thread override them.
+    
+    default CompletableFuture<ClusterInstance> launchAsync(T spec, LaunchListener listener) {
+        return AsyncSupport.supplyAsync(() -> launch(spec));
+    }
+    
+    default CompletableFuture<Void> stopAsync(ClusterInstance instance) {
+        return AsyncSupport.runAsync(() -> stop(instance));
+    }
+    
+    default CompletableFuture<Void> destroyAsync(ClusterInstance instance) {
+        return AsyncSupport.runAsync(() -> destroy(instance));
+    }
+    
+    default CompletableFuture<ClusterInstance.Status> getStatusAsync(ClusterInstance instance) {
+        return AsyncSupport.supplyAsync(() -> getStatus(instance));
+    }
+    
+    // Starts fetching whatever launching spec will need, such as binaries, and returns at once,
+    // so a caller that knows its specs early can overlap that with other work. Launching without
+    // it is still correct. Nothing to fetch by default.
+    default CompletableFuture<Void> prefetch(T spec) {
+        return CompletableFuture.completedFuture(null);
+    }
 }
\ No newline at end of file
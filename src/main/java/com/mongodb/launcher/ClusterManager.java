@@ -1,11 +1,21 @@
 package com.mongodb.launcher;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 public class ClusterManager {
     
+    public static final int DEFAULT_BATCH_PARALLELISM = 4;
+    
     private final List<ClusterLauncher<?>> launchers;
     
     @SuppressWarnings("unchecked")
@@ -31,6 +41,133 @@ public class ClusterManager {
         return launcher.launch(spec);
     }
     
+    public CompletableFuture<ClusterInstance> launchAsync(ClusterSpec spec) {
+        return launchAsync(spec, LaunchListener.NONE);
+    }
+    
+    // Returns at once; the future completes when the cluster is ready. Cancelling it aborts the
+    // launch and releases whatever the launcher had already started.
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<ClusterInstance> launchAsync(ClusterSpec spec, LaunchListener listener) {
+        try {
+            ClusterLauncher<ClusterSpec> launcher = (ClusterLauncher<ClusterSpec>) findLauncher(spec);
+            return launcher.launchAsync(spec, listener);
+        } catch (ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    // Starts fetching what launching spec will need, see ClusterLauncher.prefetch
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Void> prefetch(ClusterSpec spec) {
+        try {
+            ClusterLauncher<ClusterSpec> launcher = (ClusterLauncher<ClusterSpec>) findLauncher(spec);
+            return launcher.prefetch(spec);
+        } catch (ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    public CompletableFuture<Void> stopAsync(ClusterInstance instance) {
+        try {
+            return findLauncher(instance.getSpec()).stopAsync(instance);
+        } catch (ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    public CompletableFuture<Void> destroyAsync(ClusterInstance instance) {
+        try {
+            return findLauncher(instance.getSpec()).destroyAsync(instance);
+        } catch (ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    public CompletableFuture<ClusterInstance.Status> getStatusAsync(ClusterInstance instance) {
+        try {
+            return findLauncher(instance.getSpec()).getStatusAsync(instance);
+        } catch (ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    public List<BatchResult> launchAll(Collection<? extends ClusterSpec> specs) {
+        return launchAll(specs, DEFAULT_BATCH_PARALLELISM);
+    }
+    
+    // Launches the clusters concurrently, at most parallelism at a time, and returns one result
+    // per spec in the same order. A failed launch is reported in its result and does not stop
+    // the others. Clusters of the same version share one install of its binaries.
+    public List<BatchResult> launchAll(Collection<? extends ClusterSpec> specs, int parallelism) {
+        // Specs still waiting for a slot have their binaries installed in the meantime
+        specs.forEach(this::prefetch);
+        return runAll(new ArrayList<>(specs), parallelism, "cluster-launch", ClusterSpec::getName, this::launch);
+    }
+    
+    public List<BatchResult> stopAll(Collection<ClusterInstance> instances, int parallelism) {
+        return runAll(new ArrayList<>(instances), parallelism, "cluster-stop", ClusterInstance::getName, instance -> {
+            stop(instance);
+            return instance;
+        });
+    }
+    
+    public List<BatchResult> destroyAll(Collection<ClusterInstance> instances, int parallelism) {
+        return runAll(new ArrayList<>(instances), parallelism, "cluster-destroy", ClusterInstance::getName, instance -> {
+            destroy(instance);
+            return instance;
+        });
+    }
+    
+    private <T> List<BatchResult> runAll(List<T> items, int parallelism, String threadName,
+                                         Function<T, String> nameOf, BatchOperation<T> operation) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Launches spend nearly all their time waiting on processes and the network, so a
+        // thread per running launch is cheap; the pool size is the concurrency limit
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, items.size()), r -> {
+            Thread thread = new Thread(r, threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<CompletableFuture<BatchResult>> results = new ArrayList<>();
+            for (T item : items) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    long start = System.nanoTime();
+                    ClusterInstance instance = null;
+                    ClusterLaunchException error = null;
+                    try {
+                        instance = operation.run(item);
+                    } catch (ClusterLaunchException e) {
+                        error = e;
+                    } catch (RuntimeException e) {
+                        error = new ClusterLaunchException(e.getMessage(), e);
+                    }
+                    return new BatchResult(nameOf.apply(item), instance, error, (System.nanoTime() - start) / 1_000_000L);
+                }, executor));
+            }
+            return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    // Starts launching size clusters shaped like spec in the background and returns at once;
+    // checkout() blocks until one of them is ready
+    public ClusterPool createPool(LocalClusterSpec spec, int size) {
+        ClusterPool pool = new ClusterPool(this, spec, size);
+        pool.start();
+        return pool;
+    }
+    
     public void stop(ClusterInstance instance) throws ClusterLaunchException {
         ClusterLauncher<?> launcher = findLauncher(instance.getSpec());
         launcher.stop(instance);
@@ -57,4 +194,9 @@ public class ClusterManager {
     public List<ClusterLauncher<?>> getAvailableLaunchers() {
         return launchers;
     }
+    
+    @FunctionalInterface
+    private interface BatchOperation<T> {
+        ClusterInstance run(T item) throws ClusterLaunchException;
+    }
 }
\ No newline at end of file
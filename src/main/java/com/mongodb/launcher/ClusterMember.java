@@ -0,0 +1,96 @@
+package com.mongodb.launcher;
+
+public class ClusterMember {
+    
+    private Role role;
+    private String host;
+    private int port;
+    private long pid;
+    private long startTimeMillis;
+    private String replicaSetName;
+    private String dbPath;
+    private String logPath;
+    
+    public ClusterMember() {}
+    
+    public ClusterMember(Role role, String host, int port, long pid) {
+        this.role = role;
+        this.host = host;
+        this.port = port;
+        this.pid = pid;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public void setRole(Role role) {
+        this.role = role;
+    }
+    
+    public String getHost() {
+        return host;
+    }
+    
+    public void setHost(String host) {
+        this.host = host;
+    }
+    
+    public int getPort() {
+        return port;
+    }
+    
+    public void setPort(int port) {
+        this.port = port;
+    }
+    
+    public long getPid() {
+        return pid;
+    }
+    
+    public void setPid(long pid) {
+        this.pid = pid;
+    }
+    
+    // Process start time, used to tell our process apart from a later one that reused the pid
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+    
+    public void setStartTimeMillis(long startTimeMillis) {
+        this.startTimeMillis = startTimeMillis;
+    }
+    
+    public String getReplicaSetName() {
+        return replicaSetName;
+    }
+    
+    public void setReplicaSetName(String replicaSetName) {
+        this.replicaSetName = replicaSetName;
+    }
+    
+    public String getDbPath() {
+        return dbPath;
+    }
+    
+    public void setDbPath(String dbPath) {
+        this.dbPath = dbPath;
+    }
+    
+    public String getLogPath() {
+        return logPath;
+    }
+    
+    public void setLogPath(String logPath) {
+        this.logPath = logPath;
+    }
+    
+    @Override
+    public String toString() {
+        return role + " " + host + ":" + port + " (pid " + pid + ")";
+    }
+    
+    public enum Role {
+        STANDALONE, REPLICA_SET_MEMBER, SHARD_MEMBER, CONFIG_SERVER, MONGOS
+    }
+}
\ No newline at end of file
@@ -0,0 +1,257 @@
+package com.mongodb.launcher;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.launcher.util.AsyncSupport;
+import com.mongodb.launcher.util.Backoff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A fixed number of ready local clusters of one shape. checkout() hands out a running cluster
+// without launching anything; release() takes it back, and it is wiped and returned to the pool
+// in the background. Cluster i uses the shape's name suffixed with "-pool<i>" and, unless the
+// shape's port is 0 and ports are allocated automatically, the block right after cluster i-1's.
+public class ClusterPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterPool.class);
+    
+    private static final int MAX_LAUNCH_ATTEMPTS = 3;
+    private static final long RESET_TIMEOUT_MS = 10_000;
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+    private static final Set<String> SYSTEM_DATABASES = Set.of("admin", "config", "local");
+    
+    private final ClusterManager manager;
+    private final LocalClusterSpec shape;
+    private final int size;
+    private final ExecutorService executor;
+    
+    private final BlockingQueue<ClusterInstance> available = new LinkedBlockingQueue<>();
+    private final Set<ClusterInstance> checkedOut = ConcurrentHashMap.newKeySet();
+    private final Map<ClusterInstance, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger failedSlots = new AtomicInteger();
+    // Launches in progress, cancelled by close(); a pool thread waiting on one cannot be interrupted
+    private final Set<CompletableFuture<ClusterInstance>> launches = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean closed;
+    private volatile Exception lastFailure;
+    
+    ClusterPool(ClusterManager manager, LocalClusterSpec shape, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.manager = manager;
+        this.shape = shape;
+        this.size = size;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(size, r -> {
+            Thread thread = new Thread(r, "cluster-pool-" + shape.getName() + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    void start() {
+        for (int slot = 0; slot < size; slot++) {
+            int s = slot;
+            executor.execute(() -> fill(s));
+        }
+    }
+    
+    public ClusterInstance checkout(long timeout, TimeUnit unit) throws ClusterLaunchException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Cluster pool " + shape.getName() + " is closed");
+            }
+            if (failedSlots.get() >= size) {
+                throw new ClusterLaunchException("Every cluster in pool " + shape.getName() + " failed to launch",
+                    lastFailure);
+            }
+            
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new ClusterLaunchException("No cluster in pool " + shape.getName() + " became available within "
+                    + unit.toMillis(timeout) + " ms", lastFailure);
+            }
+            
+            // Wake up periodically so a pool whose launches all fail is noticed
+            ClusterInstance instance = available.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(250)),
+                TimeUnit.NANOSECONDS);
+            if (instance != null) {
+                checkedOut.add(instance);
+                return instance;
+            }
+        }
+    }
+    
+    public void release(ClusterInstance instance) {
+        if (!checkedOut.remove(instance)) {
+            throw new IllegalArgumentException("Cluster was not checked out from this pool: " + instance.getName());
+        }
+        if (closed) {
+            destroyQuietly(instance);
+            return;
+        }
+        executor.execute(() -> recycle(instance));
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public int getAvailableCount() {
+        return available.size();
+    }
+    
+    public LocalClusterSpec getShape() {
+        return shape;
+    }
+    
+    // Destroys every cluster of the pool, including those still checked out
+    @Override
+    public void close() {
+        closed = true;
+        // The launchers clean up whatever a cancelled launch had started
+        launches.forEach(launch -> launch.cancel(false));
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Cluster pool {} did not finish pending launches within {} s", shape.getName(),
+                    CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        List<ClusterInstance> clusters = new ArrayList<>(slots.keySet());
+        available.clear();
+        checkedOut.clear();
+        clusters.parallelStream().forEach(this::destroyQuietly);
+    }
+    
+    private void fill(int slot) {
+        Backoff backoff = new Backoff(1_000, 30_000, 2.0, 0.2);
+        
+        for (int attempt = 1; !closed; attempt++) {
+            try {
+                ClusterInstance instance = launch(specForSlot(slot));
+                slots.put(instance, slot);
+                if (closed) {
+                    destroyQuietly(instance);
+                    return;
+                }
+                available.offer(instance);
+                logger.debug("Pool {} slot {} ready: {}", shape.getName(), slot, instance.getConnectionString());
+                return;
+            } catch (ClusterLaunchException e) {
+                if (closed) {
+                    return;
+                }
+                lastFailure = e;
+                logger.warn("Pool {} slot {} failed to launch (attempt {} of {}): {}", shape.getName(), slot, attempt,
+                    MAX_LAUNCH_ATTEMPTS, e.getMessage());
+                if (attempt >= MAX_LAUNCH_ATTEMPTS) {
+                    failedSlots.incrementAndGet();
+                    return;
+                }
+                try {
+                    backoff.sleep();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    private ClusterInstance launch(LocalClusterSpec spec) throws ClusterLaunchException {
+        CompletableFuture<ClusterInstance> launch = manager.launchAsync(spec);
+        launches.add(launch);
+        try {
+            // close() may have run before the launch was added
+            if (closed) {
+                launch.cancel(false);
+            }
+            return AsyncSupport.join(launch);
+        } finally {
+            launches.remove(launch);
+        }
+    }
+    
+    // Clusters seeded from a data template are relaunched rather than wiped, since dropping
+    // their databases would lose the fixtures; a reflink clone makes that cheap
+    private void recycle(ClusterInstance instance) {
+        if (shape.getTemplate() == null) {
+            try {
+                reset(instance);
+                available.offer(instance);
+                return;
+            } catch (ClusterLaunchException e) {
+                logger.warn("Replacing pooled cluster {}: {}", instance.getName(), e.getMessage());
+            }
+        }
+        
+        Integer slot = slots.get(instance);
+        destroyQuietly(instance);
+        if (slot != null && !closed) {
+            fill(slot);
+        }
+    }
+    
+    // Drops every user database so the next borrower starts from an empty cluster
+    private void reset(ClusterInstance instance) throws ClusterLaunchException {
+        if (manager.getStatus(instance) != ClusterInstance.Status.READY) {
+            throw new ClusterLaunchException("Cluster " + instance.getName() + " is no longer running");
+        }
+        
+        MongoClientSettings settings = MongoClientSettings.builder()
+            .applyConnectionString(new ConnectionString(instance.getConnectionString()))
+            .applyToClusterSettings(b -> b.serverSelectionTimeout(RESET_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+            .build();
+        
+        try (MongoClient client = MongoClients.create(settings)) {
+            for (String database : client.listDatabaseNames()) {
+                if (!SYSTEM_DATABASES.contains(database)) {
+                    client.getDatabase(database).drop();
+                }
+            }
+        } catch (MongoException e) {
+            throw new ClusterLaunchException("Failed to reset pooled cluster " + instance.getName(), e);
+        }
+    }
+    
+    private LocalClusterSpec specForSlot(int slot) {
+        LocalClusterSpec spec = new LocalClusterSpec(shape);
+        spec.setName(shape.getName() + "-pool" + slot);
+        if (shape.getPort() > 0) {
+            spec.setPort(shape.getPort() + slot * shape.getPortCount());
+        }
+        return spec;
+    }
+    
+    private void destroyQuietly(ClusterInstance instance) {
+        slots.remove(instance);
+        try {
+            manager.destroy(instance);
+        } catch (ClusterLaunchException e) {
+            logger.warn("Failed to destroy pooled cluster {}: {}", instance.getName(), e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.mongodb.launcher;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 @JsonSubTypes({
     @JsonSubTypes.Type(value = AtlasClusterSpec.class, name = "atlas"),
@@ -12,6 +16,7 @@ public abstract class ClusterSpec {
     
     private String name;
     private String mongoVersion;
+    private Map<String, String> labels = new LinkedHashMap<>();
     
     public ClusterSpec() {}
     
@@ -36,6 +41,17 @@ public abstract class ClusterSpec {
         this.mongoVersion = mongoVersion;
     }
     
+    // Free-form key/value tags, used to select clusters for bulk operations
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+    
+    public void setLabels(Map<String, String> labels) {
+        this.labels = labels != null ? labels : new LinkedHashMap<>();
+    }
+    
+    // Already written as the "type" discriminator
+    @JsonIgnore
     public abstract ClusterType getType();
     
     public enum ClusterType {
@@ -0,0 +1,17 @@
+package com.mongodb.launcher;
+
+// Progress of an asynchronous launch. Callbacks run on launcher threads, several at once for
+// phases that run concurrently, so they should be quick and thread-safe. An exception thrown
+// from a callback is logged and otherwise ignored.
+public interface LaunchListener {
+    
+    LaunchListener NONE = new LaunchListener() {};
+    
+    // Phase names are the LaunchTimings constants, with an item suffix for phases that run per
+    // member or per replica set, e.g. "ready:27018"
+    default void phaseCompleted(ClusterInstance instance, String phase, long millis) {
+    }
+    
+    default void statusChanged(ClusterInstance instance, ClusterInstance.Status status) {
+    }
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.mongodb.launcher;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 public class LocalClusterSpec extends ClusterSpec {
@@ -8,9 +11,14 @@ public class LocalClusterSpec extends ClusterSpec {
     private int port = 27017;
     private String dataPath;
     private String logPath;
+    private StorageProfile storage = StorageProfile.PERSISTENT;
     private LocalTopology topology = LocalTopology.STANDALONE;
     private int replicaSetSize = 3;
     private int shardCount = 2;
+    private int configServerCount = 1;
+    private int mongosCount = 1;
+    private boolean fastElection = false;
+    private String template;
     private boolean enableAuth = false;
     private String authUser;
     private String authPassword;
@@ -22,6 +30,26 @@ public class LocalClusterSpec extends ClusterSpec {
         super(name, mongoVersion);
     }
     
+    public LocalClusterSpec(LocalClusterSpec other) {
+        super(other.getName(), other.getMongoVersion());
+        setLabels(new LinkedHashMap<>(other.getLabels()));
+        this.port = other.port;
+        this.dataPath = other.dataPath;
+        this.logPath = other.logPath;
+        this.storage = other.storage;
+        this.topology = other.topology;
+        this.replicaSetSize = other.replicaSetSize;
+        this.shardCount = other.shardCount;
+        this.configServerCount = other.configServerCount;
+        this.mongosCount = other.mongosCount;
+        this.fastElection = other.fastElection;
+        this.template = other.template;
+        this.enableAuth = other.enableAuth;
+        this.authUser = other.authUser;
+        this.authPassword = other.authPassword;
+        this.additionalOptions = new ArrayList<>(other.additionalOptions);
+    }
+    
     @Override
     public ClusterType getType() {
         return ClusterType.LOCAL;
@@ -35,6 +63,19 @@ public class LocalClusterSpec extends ClusterSpec {
         this.port = port;
     }
     
+    // Consecutive ports the cluster occupies from getPort()
+    @JsonIgnore
+    public int getPortCount() {
+        switch (topology) {
+            case REPLICA_SET:
+                return replicaSetSize;
+            case SHARDED:
+                return mongosCount + shardCount * replicaSetSize + configServerCount;
+            default:
+                return 1;
+        }
+    }
+    
     public String getDataPath() {
         return dataPath;
     }
@@ -51,6 +92,14 @@ public class LocalClusterSpec extends ClusterSpec {
         this.logPath = logPath;
     }
     
+    public StorageProfile getStorage() {
+        return storage;
+    }
+    
+    public void setStorage(StorageProfile storage) {
+        this.storage = storage;
+    }
+    
     public LocalTopology getTopology() {
         return topology;
     }
@@ -75,6 +124,39 @@ public class LocalClusterSpec extends ClusterSpec {
         this.shardCount = shardCount;
     }
     
+    public int getConfigServerCount() {
+        return configServerCount;
+    }
+    
+    public void setConfigServerCount(int configServerCount) {
+        this.configServerCount = configServerCount;
+    }
+    
+    public int getMongosCount() {
+        return mongosCount;
+    }
+    
+    public void setMongosCount(int mongosCount) {
+        this.mongosCount = mongosCount;
+    }
+    
+    public boolean isFastElection() {
+        return fastElection;
+    }
+    
+    public void setFastElection(boolean fastElection) {
+        this.fastElection = fastElection;
+    }
+    
+    // Name of a data template to seed every member's dbpath from
+    public String getTemplate() {
+        return template;
+    }
+    
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+    
     public boolean isEnableAuth() {
         return enableAuth;
     }
@@ -110,4 +192,9 @@ public class LocalClusterSpec extends ClusterSpec {
     public enum LocalTopology {
         STANDALONE, REPLICA_SET, SHARDED
     }
+    
+    // MEMORY keeps dbpaths on tmpfs with settings for throwaway clusters; nothing survives a reboot
+    public enum StorageProfile {
+        PERSISTENT, MEMORY
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.mongodb.launcher.atlas;
+
+import com.mongodb.launcher.AtlasClusterSpec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// The part of the Atlas Admin API the launcher uses. Calls block until Atlas answers; Atlas
+// itself works asynchronously, so a created cluster is only usable once listClusters reports it
+// IDLE.
+public interface AtlasApi {
+    
+    void createCluster(AtlasClusterSpec spec) throws IOException;
+    
+    // Every cluster of the project in one call, however many of them the caller is interested in
+    List<AtlasClusterState> listClusters(String projectId) throws IOException;
+    
+    // listClusters for callers that must not wait, completing with the IOException it would
+    // throw. Implementations that queue requests complete it later; this one calls right away.
+    default CompletableFuture<List<AtlasClusterState>> listClustersAsync(String projectId) {
+        try {
+            return CompletableFuture.completedFuture(listClusters(projectId));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    void setPaused(String projectId, String clusterName, boolean paused) throws IOException;
+    
+    // Deleting a cluster that no longer exists is not an error
+    void deleteCluster(String projectId, String clusterName) throws IOException;
+    
+    // The organization the project belongs to, or null if it is not known
+    default String getOrganizationId(String projectId) throws IOException {
+        return null;
+    }
+}
\ No newline at end of file
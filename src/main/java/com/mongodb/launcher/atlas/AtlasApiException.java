@@ -0,0 +1,36 @@
+package com.mongodb.launcher.atlas;
+
+import java.io.IOException;
+
+// An error response from the Atlas Admin API
+public class AtlasApiException extends IOException {
+    
+    private final int statusCode;
+    private final String errorCode;
+    private final long retryAfterMillis;
+    
+    public AtlasApiException(int statusCode, String errorCode, String message, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.errorCode = errorCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+    
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
+    public String getErrorCode() {
+        return errorCode;
+    }
+    
+    // From the Retry-After header of a 429 or 503, or -1 if Atlas sent none
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+    
+    // Retrying the same request cannot succeed: bad credentials, a missing project or an invalid spec
+    public boolean isPermanent() {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+}
\ No newline at end of file
@@ -1,15 +1,83 @@
 package com.mongodb.launcher.atlas;
 
 import com.mongodb.launcher.*;
+import com.mongodb.launcher.config.ConfigManager;
+import com.mongodb.launcher.util.AsyncSupport;
+import com.mongodb.launcher.util.LaunchTimings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class AtlasClusterLauncher implements ClusterLauncher<AtlasClusterSpec> {
     
     private static final Logger logger = LoggerFactory.getLogger(AtlasClusterLauncher.class);
     
+    public static final String ACCESS_TOKEN_ENV = "MONGO_LAUNCHER_ATLAS_TOKEN";
+    public static final String ACCESS_TOKEN_PROPERTY = "atlasAccessToken";
+    public static final String BASE_URL_PROPERTY = "atlasBaseUrl";
+    public static final String PROJECT_RATE_PROPERTY = "atlasProjectRequestsPerMinute";
+    public static final String ORG_RATE_PROPERTY = "atlasOrgRequestsPerMinute";
+    
+    private static final Duration PROVISION_TIMEOUT = Duration.ofMinutes(30);
+    
+    private final AtlasApi api;
+    private final AtlasStatusPoller poller;
+    // The simulation lives in memory, so it only knows the clusters this process launched
+    private final boolean simulated;
+    
+    // Uses the Atlas Admin API when an access token is configured and simulates Atlas otherwise
+    public AtlasClusterLauncher() {
+        this(new ConfigManager());
+    }
+    
+    public AtlasClusterLauncher(ConfigManager configManager) {
+        String token = System.getenv(ACCESS_TOKEN_ENV);
+        if (token == null || token.isBlank()) {
+            token = configManager.getCustomProperty(ACCESS_TOKEN_PROPERTY);
+        }
+        
+        if (token == null || token.isBlank()) {
+            logger.debug("No Atlas access token configured, simulating Atlas");
+            this.api = new SimulatedAtlasApi();
+            // The simulation provisions in a second, so there is no point in backing off far
+            this.poller = new AtlasStatusPoller(api, 100, 500);
+            this.simulated = true;
+        } else {
+            String baseUrl = configManager.getCustomProperty(BASE_URL_PROPERTY);
+            this.api = new AtlasRequestScheduler(
+                new HttpAtlasApi(baseUrl != null ? baseUrl : HttpAtlasApi.DEFAULT_BASE_URL, token),
+                intProperty(configManager, PROJECT_RATE_PROPERTY, AtlasRequestScheduler.DEFAULT_PROJECT_REQUESTS_PER_MINUTE),
+                intProperty(configManager, ORG_RATE_PROPERTY, AtlasRequestScheduler.DEFAULT_ORG_REQUESTS_PER_MINUTE),
+                AtlasRequestScheduler.DEFAULT_MAX_IN_FLIGHT);
+            this.poller = new AtlasStatusPoller(api);
+            this.simulated = false;
+        }
+    }
+    
+    public AtlasClusterLauncher(AtlasApi api, AtlasStatusPoller poller) {
+        this.api = api;
+        this.poller = poller;
+        this.simulated = api instanceof SimulatedAtlasApi;
+    }
+    
     @Override
     public ClusterInstance launch(AtlasClusterSpec spec) throws ClusterLaunchException {
+        return AsyncSupport.join(launchAsync(spec, LaunchListener.NONE));
+    }
+    
+    // Only the create request holds a thread; the shared poller then waits for the cluster to
+    // become IDLE along with every other cluster being provisioned
+    @Override
+    public CompletableFuture<ClusterInstance> launchAsync(AtlasClusterSpec spec, LaunchListener listener) {
         logger.info("Launching Atlas cluster: {}", spec.getName());
         
         ClusterInstance instance = new ClusterInstance(
@@ -17,40 +85,103 @@ public class AtlasClusterLauncher implements ClusterLauncher<AtlasClusterSpec> {
             spec.getName(),
             spec
         );
+        AsyncSupport.notifyStatus(listener, instance);
         
-        try {
-            // TODO: Integrate with Atlas API Client to create cluster
-            // For now, simulate cluster creation
-            Thread.sleep(1000);
+        LaunchTimings timings = new LaunchTimings((phase, millis) -> AsyncSupport.notifyPhase(listener, instance, phase, millis));
+        long start = timings.start();
+        CompletableFuture<ClusterInstance> future = new CompletableFuture<>();
+        AtomicBoolean created = new AtomicBoolean();
+        AtomicReference<CompletableFuture<AtlasClusterState>> idle = new AtomicReference<>();
+        
+        AsyncSupport.runAsync(() -> {
+            if (future.isDone()) {
+                throw new CancellationException();
+            }
+            call("create", spec, () -> api.createCluster(spec));
+            created.set(true);
+        }).thenCompose(v -> {
+            CompletableFuture<AtlasClusterState> watch = poller.awaitState(spec.getProjectId(), spec.getName(),
+                Set.of(AtlasClusterState.IDLE), PROVISION_TIMEOUT);
+            idle.set(watch);
+            if (future.isDone()) {
+                watch.cancel(false);
+            }
+            return watch;
+        }).whenCompleteAsync((state, error) -> {
+            if (future.isCancelled()) {
+                instance.setStatus(ClusterInstance.Status.ERROR);
+                AsyncSupport.notifyStatus(listener, instance);
+                logger.info("Launch of Atlas cluster {} was cancelled", spec.getName());
+                if (created.get()) {
+                    deleteQuietly(spec);
+                }
+                return;
+            }
             
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                instance.setStatus(ClusterInstance.Status.ERROR);
+                AsyncSupport.notifyStatus(listener, instance);
+                future.completeExceptionally(cause instanceof ClusterLaunchException ? cause
+                    : new ClusterLaunchException("Failed to launch Atlas cluster: " + spec.getName(), cause));
+                return;
+            }
+            
+            timings.record(LaunchTimings.PROVISION, start);
             instance.setStatus(ClusterInstance.Status.READY);
-            instance.setConnectionString(generateConnectionString(spec));
+            instance.setConnectionString(state.getConnectionString());
+            timings.finish();
+            instance.putMetadata(LaunchTimings.METADATA_KEY, timings.toMap());
             
             logger.info("Atlas cluster {} launched successfully", spec.getName());
-            return instance;
-            
-        } catch (Exception e) {
-            instance.setStatus(ClusterInstance.Status.ERROR);
-            throw new ClusterLaunchException("Failed to launch Atlas cluster: " + spec.getName(), e);
-        }
+            AsyncSupport.notifyStatus(listener, instance);
+            if (!future.complete(instance)) {
+                // Cancelled while the last state change was being handled
+                deleteQuietly(spec);
+            }
+        });
+        
+        future.whenComplete((result, error) -> {
+            CompletableFuture<AtlasClusterState> watch = idle.get();
+            if (future.isCancelled() && watch != null) {
+                watch.cancel(false);
+            }
+        });
+        return future;
     }
     
     @Override
     public void stop(ClusterInstance instance) throws ClusterLaunchException {
         logger.info("Stopping Atlas cluster: {}", instance.getName());
+        AtlasClusterSpec spec = (AtlasClusterSpec) instance.getSpec();
+        if (isKnown(spec)) {
+            call("pause", spec, () -> api.setPaused(spec.getProjectId(), spec.getName(), true));
+        }
         instance.setStatus(ClusterInstance.Status.STOPPED);
     }
     
     @Override
     public void destroy(ClusterInstance instance) throws ClusterLaunchException {
         logger.info("Destroying Atlas cluster: {}", instance.getName());
+        AtlasClusterSpec spec = (AtlasClusterSpec) instance.getSpec();
+        if (isKnown(spec)) {
+            call("delete", spec, () -> api.deleteCluster(spec.getProjectId(), spec.getName()));
+        }
         instance.setStatus(ClusterInstance.Status.DESTROYED);
     }
     
     @Override
     public ClusterInstance.Status getStatus(ClusterInstance instance) throws ClusterLaunchException {
-        // TODO: Query actual Atlas cluster status
-        return instance.getStatus();
+        AtlasClusterSpec spec = (AtlasClusterSpec) instance.getSpec();
+        Optional<AtlasClusterState> state = find(spec);
+        if (state.isEmpty() && simulated) {
+            // Launched by another process; the stored status is all there is
+            return instance.getStatus();
+        }
+        
+        ClusterInstance.Status status = state.map(AtlasClusterLauncher::toStatus).orElse(ClusterInstance.Status.DESTROYED);
+        instance.setStatus(status);
+        return status;
     }
     
     @Override
@@ -58,12 +189,79 @@ public class AtlasClusterLauncher implements ClusterLauncher<AtlasClusterSpec> {
         return spec instanceof AtlasClusterSpec;
     }
     
-    private String generateClusterId(AtlasClusterSpec spec) {
-        return "atlas-" + spec.getName() + "-" + System.currentTimeMillis();
+    private Optional<AtlasClusterState> find(AtlasClusterSpec spec) throws ClusterLaunchException {
+        try {
+            return api.listClusters(spec.getProjectId()).stream()
+                .filter(s -> s.getName().equals(spec.getName()))
+                .findFirst();
+        } catch (IOException e) {
+            throw new ClusterLaunchException("Failed to query status of Atlas cluster: " + spec.getName(), e);
+        }
+    }
+    
+    // Whether the API can act on the cluster. Real Atlas is always asked, so a cluster deleted
+    // behind our back still fails loudly; the simulation only changes local state for clusters
+    // another process launched
+    private boolean isKnown(AtlasClusterSpec spec) throws ClusterLaunchException {
+        return !simulated || find(spec).isPresent();
+    }
+    
+    private static ClusterInstance.Status toStatus(AtlasClusterState state) {
+        if (state.isPaused()) {
+            return ClusterInstance.Status.STOPPED;
+        }
+        switch (String.valueOf(state.getStateName())) {
+            case AtlasClusterState.CREATING:
+                return ClusterInstance.Status.CREATING;
+            case AtlasClusterState.DELETING:
+            case AtlasClusterState.DELETED:
+                return ClusterInstance.Status.DESTROYED;
+            default:
+                // IDLE, or UPDATING and REPAIRING, during which the cluster stays available
+                return ClusterInstance.Status.READY;
+        }
+    }
+    
+    private static int intProperty(ConfigManager configManager, String key, int defaultValue) {
+        String value = configManager.getCustomProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        logger.warn("Ignoring invalid {} setting '{}', using {}", key, value, defaultValue);
+        return defaultValue;
     }
     
-    private String generateConnectionString(AtlasClusterSpec spec) {
-        // TODO: Get actual connection string from Atlas API
-        return "mongodb+srv://" + spec.getName() + ".mongodb.net/test";
+    private void deleteQuietly(AtlasClusterSpec spec) {
+        try {
+            api.deleteCluster(spec.getProjectId(), spec.getName());
+        } catch (IOException e) {
+            logger.warn("Failed to delete Atlas cluster {}: {}", spec.getName(), e.getMessage());
+        }
+    }
+    
+    private static void call(String action, AtlasClusterSpec spec, ApiCall call) throws ClusterLaunchException {
+        try {
+            call.run();
+        } catch (IOException e) {
+            throw new ClusterLaunchException("Failed to " + action + " Atlas cluster " + spec.getName() + ": "
+                + e.getMessage(), e);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ApiCall {
+        void run() throws IOException;
+    }
+    
+    private String generateClusterId(AtlasClusterSpec spec) {
+        return "atlas-" + spec.getName() + "-" + System.currentTimeMillis();
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.mongodb.launcher.atlas;
+
+// What Atlas reports about one cluster. stateName is Atlas' own lifecycle state; a cluster is
+// usable once it is IDLE.
+public class AtlasClusterState {
+    
+    public static final String IDLE = "IDLE";
+    public static final String CREATING = "CREATING";
+    public static final String UPDATING = "UPDATING";
+    public static final String REPAIRING = "REPAIRING";
+    public static final String DELETING = "DELETING";
+    public static final String DELETED = "DELETED";
+    
+    private final String name;
+    private final String stateName;
+    private final boolean paused;
+    private final String connectionString;
+    
+    public AtlasClusterState(String name, String stateName, boolean paused, String connectionString) {
+        this.name = name;
+        this.stateName = stateName;
+        this.paused = paused;
+        this.connectionString = connectionString;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getStateName() {
+        return stateName;
+    }
+    
+    public boolean isPaused() {
+        return paused;
+    }
+    
+    public String getConnectionString() {
+        return connectionString;
+    }
+    
+    @Override
+    public String toString() {
+        return name + " (" + stateName + (paused ? ", paused" : "") + ")";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,372 @@
+package com.mongodb.launcher.atlas;
+
+import com.mongodb.launcher.AtlasClusterSpec;
+import com.mongodb.launcher.util.Backoff;
+import com.mongodb.launcher.util.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends every Atlas API request through token buckets, one per project and one per organization,
+// so bulk operations stay under Atlas' rate limits instead of running into 429s. Requests wait in
+// one queue: changes (create, pause, delete) go ahead of status reads, and otherwise requests go
+// in the order they were made. A request whose project is out of tokens does not hold up
+// requests for other projects.
+//
+// A 429 or 503 is retried after its Retry-After, or after a jittered exponential backoff if Atlas
+// sent none, and a 429 also holds back the rest of the project's requests for that long. Network
+// errors are retried for requests that are safe to repeat, which is every one but create.
+public class AtlasRequestScheduler implements AtlasApi, AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AtlasRequestScheduler.class);
+    
+    public static final int DEFAULT_PROJECT_REQUESTS_PER_MINUTE = 100;
+    public static final int DEFAULT_ORG_REQUESTS_PER_MINUTE = 300;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    
+    private static final int MAX_ATTEMPTS = 5;
+    // Bursts of up to ten seconds' worth of requests
+    private static final int BURST_DIVISOR = 6;
+    private static final String UNKNOWN_ORG = "";
+    
+    private final AtlasApi delegate;
+    private final int projectRequestsPerMinute;
+    private final int orgRequestsPerMinute;
+    private final int maxInFlight;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    
+    // Guarded by queue
+    private final TreeSet<Request<?>> queue = new TreeSet<>(Comparator
+        .comparing((Request<?> r) -> r.priority)
+        .thenComparingLong(r -> r.sequence));
+    private final Map<String, TokenBucket> projectBuckets = new HashMap<>();
+    private final Map<String, TokenBucket> orgBuckets = new HashMap<>();
+    private int inFlight;
+    private boolean closed;
+    
+    // The lookup of each project's organization, shared by the project's requests
+    private final Map<String, CompletableFuture<String>> orgIds = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    
+    public AtlasRequestScheduler(AtlasApi delegate) {
+        this(delegate, DEFAULT_PROJECT_REQUESTS_PER_MINUTE, DEFAULT_ORG_REQUESTS_PER_MINUTE, DEFAULT_MAX_IN_FLIGHT);
+    }
+    
+    public AtlasRequestScheduler(AtlasApi delegate, int projectRequestsPerMinute, int orgRequestsPerMinute,
+                                 int maxInFlight) {
+        if (projectRequestsPerMinute < 1 || orgRequestsPerMinute < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Invalid Atlas request limits");
+        }
+        this.delegate = delegate;
+        this.projectRequestsPerMinute = projectRequestsPerMinute;
+        this.orgRequestsPerMinute = orgRequestsPerMinute;
+        this.maxInFlight = maxInFlight;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread thread = new Thread(r, "atlas-request-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "atlas-request-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+    
+    @Override
+    public void createCluster(AtlasClusterSpec spec) throws IOException {
+        call(Priority.CHANGE, spec.getProjectId(), false, () -> {
+            delegate.createCluster(spec);
+            return null;
+        });
+    }
+    
+    @Override
+    public List<AtlasClusterState> listClusters(String projectId) throws IOException {
+        return call(Priority.READ, projectId, true, () -> delegate.listClusters(projectId));
+    }
+    
+    // Completes once the request has had its turn, without holding a thread in the meantime
+    @Override
+    public CompletableFuture<List<AtlasClusterState>> listClustersAsync(String projectId) {
+        return submit(Priority.READ, projectId, true, () -> delegate.listClusters(projectId));
+    }
+    
+    @Override
+    public void setPaused(String projectId, String clusterName, boolean paused) throws IOException {
+        call(Priority.CHANGE, projectId, true, () -> {
+            delegate.setPaused(projectId, clusterName, paused);
+            return null;
+        });
+    }
+    
+    @Override
+    public void deleteCluster(String projectId, String clusterName) throws IOException {
+        call(Priority.CHANGE, projectId, true, () -> {
+            delegate.deleteCluster(projectId, clusterName);
+            return null;
+        });
+    }
+    
+    @Override
+    public String getOrganizationId(String projectId) throws IOException {
+        String orgId = await(organizationOf(projectId), "looking up the organization of project " + projectId);
+        return orgId.equals(UNKNOWN_ORG) ? null : orgId;
+    }
+    
+    // Fails whatever is still queued; requests already sent are left to finish
+    @Override
+    public void close() {
+        synchronized (queue) {
+            closed = true;
+            for (Request<?> request : queue) {
+                request.future.completeExceptionally(new IOException("Atlas request scheduler is closed"));
+            }
+            queue.clear();
+            queue.notifyAll();
+        }
+        workers.shutdown();
+    }
+    
+    private <T> T call(Priority priority, String projectId, boolean idempotent, Operation<T> operation)
+            throws IOException {
+        return await(submit(priority, projectId, idempotent, operation), "waiting for an Atlas API request");
+    }
+    
+    // Queues the request once its project's organization is known. Cancelling the returned
+    // future takes the request off the queue.
+    private <T> CompletableFuture<T> submit(Priority priority, String projectId, boolean idempotent,
+                                            Operation<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        organizationOf(projectId).thenAccept(orgId -> {
+            Request<T> request = new Request<>(priority, projectId, orgId, idempotent, operation,
+                sequence.incrementAndGet());
+            request.future.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    request.future.cancel(false);
+                }
+            });
+            if (!result.isDone()) {
+                enqueue(request);
+            }
+        });
+        return result;
+    }
+    
+    private static <T> T await(CompletableFuture<T> future, String what) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while " + what);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+    
+    // Looked up once per project, itself as a rate-limited request. Projects whose organization
+    // cannot be found share one organization bucket.
+    private CompletableFuture<String> organizationOf(String projectId) {
+        if (projectId == null) {
+            return CompletableFuture.completedFuture(UNKNOWN_ORG);
+        }
+        return orgIds.computeIfAbsent(projectId, id -> {
+            Request<String> lookup = new Request<>(Priority.READ, projectId, UNKNOWN_ORG, true,
+                () -> delegate.getOrganizationId(projectId), sequence.incrementAndGet());
+            enqueue(lookup);
+            return lookup.future.handle((orgId, error) -> {
+                if (error != null) {
+                    logger.debug("Could not look up the organization of Atlas project {}: {}", projectId,
+                        error.getMessage());
+                }
+                return orgId != null ? orgId : UNKNOWN_ORG;
+            });
+        });
+    }
+    
+    // Fails the request rather than queueing it once the scheduler is closed
+    private void enqueue(Request<?> request) {
+        synchronized (queue) {
+            if (closed) {
+                request.future.completeExceptionally(new IOException("Atlas request scheduler is closed"));
+                return;
+            }
+            queue.add(request);
+            queue.notifyAll();
+        }
+    }
+    
+    // Sends the first queued request whose buckets have a token, or sleeps until one will
+    private void dispatch() {
+        synchronized (queue) {
+            while (!closed) {
+                long now = System.nanoTime();
+                long waitNanos = Long.MAX_VALUE;
+                Request<?> next = null;
+                
+                if (inFlight < maxInFlight) {
+                    for (Iterator<Request<?>> it = queue.iterator(); it.hasNext(); ) {
+                        Request<?> request = it.next();
+                        if (request.future.isDone()) {
+                            it.remove();
+                            continue;
+                        }
+                        long wait = Math.max(request.notBeforeNanos - now, Math.max(
+                            projectBucket(request.projectId).nanosUntilAvailable(now),
+                            orgBucket(request.orgId).nanosUntilAvailable(now)));
+                        if (wait <= 0) {
+                            next = request;
+                            it.remove();
+                            break;
+                        }
+                        waitNanos = Math.min(waitNanos, wait);
+                    }
+                }
+                
+                if (next == null) {
+                    try {
+                        queue.wait(waitNanos == Long.MAX_VALUE ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                
+                projectBucket(next.projectId).take(now);
+                orgBucket(next.orgId).take(now);
+                inFlight++;
+                Request<?> request = next;
+                workers.execute(() -> execute(request));
+            }
+        }
+    }
+    
+    private <T> void execute(Request<T> request) {
+        long retryDelayMillis = -1;
+        try {
+            request.future.complete(request.operation.run());
+        } catch (IOException e) {
+            retryDelayMillis = retryDelay(request, e);
+            if (retryDelayMillis < 0) {
+                request.future.completeExceptionally(e);
+            } else {
+                logger.debug("Retrying Atlas request for project {} in {} ms (attempt {} of {}): {}", request.projectId,
+                    retryDelayMillis, request.attempt + 1, MAX_ATTEMPTS, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            request.future.completeExceptionally(e);
+        }
+        
+        synchronized (queue) {
+            inFlight--;
+            if (retryDelayMillis >= 0) {
+                if (closed) {
+                    request.future.completeExceptionally(new IOException("Atlas request scheduler is closed"));
+                } else {
+                    request.attempt++;
+                    request.notBeforeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+                    queue.add(request);
+                }
+            }
+            queue.notifyAll();
+        }
+    }
+    
+    // Milliseconds until the request should be retried, or -1 if it should not be
+    private long retryDelay(Request<?> request, IOException error) {
+        if (request.attempt >= MAX_ATTEMPTS || request.future.isDone() || error instanceof InterruptedIOException) {
+            return -1;
+        }
+        
+        if (error instanceof AtlasApiException) {
+            AtlasApiException apiError = (AtlasApiException) error;
+            if (apiError.getStatusCode() != 429 && apiError.getStatusCode() != 503) {
+                return -1;
+            }
+            long delay = apiError.getRetryAfterMillis() >= 0 ? apiError.getRetryAfterMillis() : request.backoff.nextDelayMillis();
+            if (apiError.getStatusCode() == 429) {
+                synchronized (queue) {
+                    projectBucket(request.projectId).blockUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+                }
+                logger.debug("Atlas rate limit reached for project {}, pausing its requests for {} ms", request.projectId, delay);
+            }
+            return delay;
+        }
+        return request.idempotent ? request.backoff.nextDelayMillis() : -1;
+    }
+    
+    private TokenBucket projectBucket(String projectId) {
+        return projectBuckets.computeIfAbsent(String.valueOf(projectId), id -> new TokenBucket(
+            Math.max(1, projectRequestsPerMinute / BURST_DIVISOR), projectRequestsPerMinute));
+    }
+    
+    private TokenBucket orgBucket(String orgId) {
+        return orgBuckets.computeIfAbsent(orgId, id -> new TokenBucket(
+            Math.max(1, orgRequestsPerMinute / BURST_DIVISOR), orgRequestsPerMinute));
+    }
+    
+    // Changes sort first, so a steady stream of status polls never delays a create or delete
+    private enum Priority {
+        CHANGE, READ
+    }
+    
+    @FunctionalInterface
+    private interface Operation<T> {
+        T run() throws IOException;
+    }
+    
+    private static class Request<T> {
+        private final Priority priority;
+        private final String projectId;
+        private final String orgId;
+        private final boolean idempotent;
+        private final Operation<T> operation;
+        private final long sequence;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Backoff backoff = new Backoff(1_000, 30_000, 2.0, 0.2);
+        private int attempt = 1;
+        private long notBeforeNanos = System.nanoTime();
+        
+        Request(Priority priority, String projectId, String orgId, boolean idempotent, Operation<T> operation,
+                long sequence) {
+            this.priority = priority;
+            this.projectId = projectId;
+            this.orgId = orgId;
+            this.idempotent = idempotent;
+            this.operation = operation;
+            this.sequence = sequence;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.mongodb.launcher.atlas;
+
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.util.Backoff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Waits for any number of Atlas clusters to reach a state, on a single scheduler thread. Watched
+// clusters are grouped by project and each poll lists a whole project in one request, so the
+// request rate depends on the number of projects rather than clusters. Every project has its own
+// jittered exponential backoff, restarted when the project goes from no watched clusters to some,
+// so projects whose clusters were created together do not keep polling in lockstep.
+//
+// Polls are sent with listClustersAsync and their results handled back on the scheduler thread,
+// so a project whose requests are held back by rate limiting or retries does not delay the
+// others. Futures complete on the scheduler thread; dependent stages that block should run async.
+public class AtlasStatusPoller implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AtlasStatusPoller.class);
+    
+    public static final long DEFAULT_INITIAL_INTERVAL_MS = 2_000;
+    public static final long DEFAULT_MAX_INTERVAL_MS = 30_000;
+    
+    private static final double MULTIPLIER = 1.5;
+    private static final double JITTER = 0.2;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    
+    private final AtlasApi api;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    
+    // Only touched on the scheduler thread
+    private final Map<String, ProjectWatch> projects = new HashMap<>();
+    
+    public AtlasStatusPoller(AtlasApi api) {
+        this(api, DEFAULT_INITIAL_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS);
+    }
+    
+    public AtlasStatusPoller(AtlasApi api, long initialIntervalMillis, long maxIntervalMillis) {
+        this.api = api;
+        this.initialIntervalMillis = initialIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "atlas-status-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Completes with the cluster's state once Atlas reports one of states. A cluster that no
+    // longer exists counts as DELETED. Fails if the cluster disappears while another state is
+    // awaited, if Atlas rejects the request outright, or once the timeout has passed. Cancelling
+    // the future stops watching the cluster.
+    public CompletableFuture<AtlasClusterState> awaitState(String projectId, String clusterName, Set<String> states,
+                                                           Duration timeout) {
+        CompletableFuture<AtlasClusterState> future = new CompletableFuture<>();
+        Watch watch = new Watch(clusterName, states, System.nanoTime() + timeout.toNanos(), future);
+        try {
+            scheduler.execute(() -> register(projectId, watch));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ClusterLaunchException("Atlas status poller is closed"));
+        }
+        return future;
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ProjectWatch project : projects.values()) {
+            failAll(project, new ClusterLaunchException("Atlas status poller was closed"));
+        }
+        projects.clear();
+    }
+    
+    private void register(String projectId, Watch watch) {
+        ProjectWatch project = projects.computeIfAbsent(projectId, id -> new ProjectWatch(id,
+            new Backoff(initialIntervalMillis, maxIntervalMillis, MULTIPLIER, JITTER)));
+        project.watches.add(watch);
+        if (project.next == null && !project.polling) {
+            schedule(project, project.backoff.nextDelayMillis());
+        }
+    }
+    
+    private void poll(ProjectWatch project) {
+        project.next = null;
+        project.watches.removeIf(watch -> watch.future.isDone());
+        if (project.watches.isEmpty()) {
+            projects.remove(project.projectId);
+            return;
+        }
+        
+        project.polling = true;
+        api.listClustersAsync(project.projectId).whenComplete((clusters, error) -> {
+            try {
+                scheduler.execute(() -> {
+                    project.polling = false;
+                    handle(project, clusters, error);
+                });
+            } catch (RejectedExecutionException e) {
+                // Closing; close() fails the remaining watches
+            }
+        });
+    }
+    
+    private void handle(ProjectWatch project, List<AtlasClusterState> clusters, Throwable error) {
+        if (projects.get(project.projectId) != project) {
+            return;
+        }
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error != null) {
+            IOException e = error instanceof IOException ? (IOException) error : new IOException(error);
+            if (e instanceof AtlasApiException && ((AtlasApiException) e).isPermanent()) {
+                failAll(project, new ClusterLaunchException("Failed to poll Atlas project " + project.projectId, e));
+                projects.remove(project.projectId);
+                return;
+            }
+            logger.warn("Polling Atlas project {} failed, will retry: {}", project.projectId, e.getMessage());
+            expire(project);
+            long retryAfter = e instanceof AtlasApiException ? ((AtlasApiException) e).getRetryAfterMillis() : -1;
+            scheduleNext(project, retryAfter);
+            return;
+        }
+        
+        Map<String, AtlasClusterState> states = new HashMap<>();
+        for (AtlasClusterState state : clusters) {
+            states.put(state.getName(), state);
+        }
+        for (Iterator<Watch> it = project.watches.iterator(); it.hasNext(); ) {
+            Watch watch = it.next();
+            AtlasClusterState state = states.get(watch.clusterName);
+            String stateName = state == null ? AtlasClusterState.DELETED : Objects.toString(state.getStateName(), "UNKNOWN");
+            if (!stateName.equals(watch.lastState)) {
+                logger.debug("Atlas cluster {} is {}", watch.clusterName, stateName);
+                watch.lastState = stateName;
+            }
+            
+            if (watch.states.contains(stateName)) {
+                watch.future.complete(state != null ? state
+                    : new AtlasClusterState(watch.clusterName, AtlasClusterState.DELETED, false, null));
+                it.remove();
+            } else if (state == null) {
+                watch.future.completeExceptionally(new ClusterLaunchException("Atlas cluster " + watch.clusterName
+                    + " no longer exists in project " + project.projectId));
+                it.remove();
+            }
+        }
+        expire(project);
+        scheduleNext(project, -1);
+    }
+    
+    private void scheduleNext(ProjectWatch project, long minDelayMillis) {
+        if (project.watches.isEmpty()) {
+            projects.remove(project.projectId);
+            return;
+        }
+        schedule(project, Math.max(minDelayMillis, project.backoff.nextDelayMillis()));
+    }
+    
+    private void schedule(ProjectWatch project, long delayMillis) {
+        try {
+            project.next = scheduler.schedule(() -> poll(project), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closing; close() fails the remaining watches
+        }
+    }
+    
+    private void expire(ProjectWatch project) {
+        long now = System.nanoTime();
+        for (Iterator<Watch> it = project.watches.iterator(); it.hasNext(); ) {
+            Watch watch = it.next();
+            if (now - watch.deadlineNanos >= 0) {
+                watch.future.completeExceptionally(new ClusterLaunchException("Atlas cluster " + watch.clusterName
+                    + " did not become " + String.join(" or ", watch.states) + " in time (last state: "
+                    + (watch.lastState != null ? watch.lastState : "unknown") + ")"));
+                it.remove();
+            }
+        }
+    }
+    
+    private static void failAll(ProjectWatch project, ClusterLaunchException error) {
+        for (Watch watch : project.watches) {
+            watch.future.completeExceptionally(error);
+        }
+        project.watches.clear();
+    }
+    
+    private static class ProjectWatch {
+        private final String projectId;
+        private final Backoff backoff;
+        private final List<Watch> watches = new ArrayList<>();
+        private ScheduledFuture<?> next;
+        // A listClusters request is on its way
+        private boolean polling;
+        
+        ProjectWatch(String projectId, Backoff backoff) {
+            this.projectId = projectId;
+            this.backoff = backoff;
+        }
+    }
+    
+    private static class Watch {
+        private final String clusterName;
+        private final Set<String> states;
+        private final long deadlineNanos;
+        private final CompletableFuture<AtlasClusterState> future;
+        private String lastState;
+        
+        Watch(String clusterName, Set<String> states, long deadlineNanos, CompletableFuture<AtlasClusterState> future) {
+            this.clusterName = clusterName;
+            this.states = states;
+            this.deadlineNanos = deadlineNanos;
+            this.future = future;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.mongodb.launcher.atlas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.launcher.AtlasClusterSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// AtlasApi over the Atlas Admin API v2 with a service account or personal access token. The base
+// URL is configurable so that the launcher can be pointed at a local stand-in for Atlas.
+public class HttpAtlasApi implements AtlasApi {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HttpAtlasApi.class);
+    
+    public static final String DEFAULT_BASE_URL = "https://cloud.mongodb.com";
+    
+    private static final String MEDIA_TYPE = "application/vnd.atlas.2023-02-01+json";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PAGE_SIZE = 500;
+    
+    private final String baseUrl;
+    private final String accessToken;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public HttpAtlasApi(String baseUrl, String accessToken) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.accessToken = accessToken;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+    }
+    
+    @Override
+    public void createCluster(AtlasClusterSpec spec) throws IOException {
+        ObjectNode electable = objectMapper.createObjectNode()
+            .put("instanceSize", spec.getInstanceSize())
+            .put("nodeCount", 3);
+        ObjectNode region = objectMapper.createObjectNode()
+            .put("providerName", spec.getCloudProvider())
+            .put("regionName", spec.getRegion())
+            .put("priority", 7);
+        region.set("electableSpecs", electable);
+        ObjectNode replicationSpec = objectMapper.createObjectNode();
+        replicationSpec.putArray("regionConfigs").add(region);
+        
+        ObjectNode body = objectMapper.createObjectNode()
+            .put("name", spec.getName())
+            .put("clusterType", spec.getTopology() == AtlasClusterSpec.ClusterTopology.SHARDED ? "SHARDED" : "REPLICASET")
+            .put("mongoDBMajorVersion", majorVersion(spec.getMongoVersion()))
+            .put("backupEnabled", spec.isEnableBackup());
+        body.putArray("replicationSpecs").add(replicationSpec);
+        
+        send(request(clustersPath(requireProject(spec.getProjectId())))
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        logger.debug("Requested Atlas cluster {} in project {}", spec.getName(), spec.getProjectId());
+    }
+    
+    @Override
+    public List<AtlasClusterState> listClusters(String projectId) throws IOException {
+        List<AtlasClusterState> clusters = new ArrayList<>();
+        for (int page = 1; ; page++) {
+            JsonNode response = send(request(clustersPath(requireProject(projectId))
+                + "?itemsPerPage=" + PAGE_SIZE + "&pageNum=" + page).GET());
+            JsonNode results = response.path("results");
+            for (JsonNode cluster : results) {
+                clusters.add(new AtlasClusterState(
+                    cluster.path("name").asText(),
+                    cluster.path("stateName").asText(null),
+                    cluster.path("paused").asBoolean(false),
+                    cluster.path("connectionStrings").path("standardSrv").asText(null)));
+            }
+            if (results.size() < PAGE_SIZE) {
+                return clusters;
+            }
+        }
+    }
+    
+    @Override
+    public void setPaused(String projectId, String clusterName, boolean paused) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode().put("paused", paused);
+        send(request(clusterPath(requireProject(projectId), clusterName))
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+    }
+    
+    @Override
+    public void deleteCluster(String projectId, String clusterName) throws IOException {
+        try {
+            send(request(clusterPath(requireProject(projectId), clusterName)).DELETE());
+        } catch (AtlasApiException e) {
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+            logger.debug("Atlas cluster {} was already deleted", clusterName);
+        }
+    }
+    
+    @Override
+    public String getOrganizationId(String projectId) throws IOException {
+        JsonNode project = send(request("/api/atlas/v2/groups/" + encode(requireProject(projectId))).GET());
+        return project.path("orgId").asText(null);
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + accessToken)
+            .header("Accept", MEDIA_TYPE)
+            .header("Content-Type", MEDIA_TYPE);
+    }
+    
+    private JsonNode send(HttpRequest.Builder builder) throws IOException {
+        HttpRequest request = builder.build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + request.method() + " " + request.uri());
+        }
+        
+        String body = response.body();
+        if (response.statusCode() / 100 != 2) {
+            throw error(request, response);
+        }
+        return body == null || body.isBlank() ? objectMapper.missingNode() : objectMapper.readTree(body);
+    }
+    
+    // Atlas errors look like {"error": 404, "errorCode": "CLUSTER_NOT_FOUND", "detail": "..."}
+    private AtlasApiException error(HttpRequest request, HttpResponse<String> response) {
+        String errorCode = null;
+        String detail = null;
+        try {
+            JsonNode error = objectMapper.readTree(response.body());
+            errorCode = error.path("errorCode").asText(null);
+            detail = error.path("detail").asText(null);
+        } catch (IOException | RuntimeException e) {
+            // Not JSON, e.g. from a proxy in between
+        }
+        
+        long retryAfterMillis = response.headers().firstValue("Retry-After")
+            .map(HttpAtlasApi::parseRetryAfter)
+            .orElse(-1L);
+        String message = request.method() + " " + request.uri().getPath() + " failed with HTTP " + response.statusCode()
+            + (errorCode != null ? " " + errorCode : "") + (detail != null ? ": " + detail : "");
+        return new AtlasApiException(response.statusCode(), errorCode, message, retryAfterMillis);
+    }
+    
+    // Only the delay-seconds form; an HTTP date is treated as absent
+    private static long parseRetryAfter(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    // Atlas takes "7.0" rather than a full version
+    private static String majorVersion(String version) {
+        String[] parts = version.split("\\.");
+        return parts.length > 2 ? parts[0] + "." + parts[1] : version;
+    }
+    
+    private static String requireProject(String projectId) throws IOException {
+        if (projectId == null || projectId.isBlank()) {
+            throw new IOException("Atlas project ID is required");
+        }
+        return projectId;
+    }
+    
+    private static String clustersPath(String projectId) {
+        return "/api/atlas/v2/groups/" + encode(projectId) + "/clusters";
+    }
+    
+    private static String clusterPath(String projectId, String clusterName) {
+        return clustersPath(projectId) + "/" + encode(clusterName);
+    }
+    
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
\ No newline at end of file
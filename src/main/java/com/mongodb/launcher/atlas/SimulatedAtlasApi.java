@@ -0,0 +1,75 @@
+package com.mongodb.launcher.atlas;
+
+import com.mongodb.launcher.AtlasClusterSpec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Stands in for Atlas when no access token is configured. Clusters exist only in memory and
+// become IDLE a fixed time after they are created.
+class SimulatedAtlasApi implements AtlasApi {
+    
+    static final long PROVISION_MILLIS = 1000;
+    
+    private final Map<String, Cluster> clusters = new ConcurrentHashMap<>();
+    
+    @Override
+    public void createCluster(AtlasClusterSpec spec) throws IOException {
+        Cluster cluster = new Cluster(spec.getProjectId(), spec.getName());
+        if (clusters.putIfAbsent(key(spec.getProjectId(), spec.getName()), cluster) != null) {
+            throw new AtlasApiException(409, "DUPLICATE_CLUSTER_NAME",
+                "Cluster " + spec.getName() + " already exists in project " + spec.getProjectId(), -1);
+        }
+    }
+    
+    @Override
+    public List<AtlasClusterState> listClusters(String projectId) {
+        List<AtlasClusterState> states = new ArrayList<>();
+        for (Cluster cluster : clusters.values()) {
+            if (Objects.equals(cluster.projectId, projectId)) {
+                states.add(cluster.state());
+            }
+        }
+        return states;
+    }
+    
+    @Override
+    public void setPaused(String projectId, String clusterName, boolean paused) throws IOException {
+        Cluster cluster = clusters.get(key(projectId, clusterName));
+        if (cluster == null) {
+            throw new AtlasApiException(404, "CLUSTER_NOT_FOUND", "No cluster named " + clusterName, -1);
+        }
+        cluster.paused = paused;
+    }
+    
+    @Override
+    public void deleteCluster(String projectId, String clusterName) {
+        clusters.remove(key(projectId, clusterName));
+    }
+    
+    private static String key(String projectId, String clusterName) {
+        return projectId + "/" + clusterName;
+    }
+    
+    private static class Cluster {
+        private final String projectId;
+        private final String name;
+        private final long createdNanos = System.nanoTime();
+        private volatile boolean paused;
+        
+        Cluster(String projectId, String name) {
+            this.projectId = projectId;
+            this.name = name;
+        }
+        
+        AtlasClusterState state() {
+            boolean provisioned = System.nanoTime() - createdNanos >= PROVISION_MILLIS * 1_000_000L;
+            return new AtlasClusterState(name, provisioned ? AtlasClusterState.IDLE : AtlasClusterState.CREATING, paused,
+                "mongodb+srv://" + name + ".mongodb.net/test");
+        }
+    }
+}
\ No newline at end of file
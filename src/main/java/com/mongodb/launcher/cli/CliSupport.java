@@ -0,0 +1,65 @@
+package com.mongodb.launcher.cli;
+
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterManager;
+import com.mongodb.launcher.atlas.AtlasClusterLauncher;
+import com.mongodb.launcher.config.ConfigManager;
+import com.mongodb.launcher.local.LocalClusterLauncher;
+import com.mongodb.launcher.state.ClusterStateStore;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+final class CliSupport {
+    
+    private CliSupport() {}
+    
+    static ClusterManager createClusterManager() {
+        return new ClusterManager(List.of(
+            new AtlasClusterLauncher(),
+            new LocalClusterLauncher()
+        ));
+    }
+    
+    static ClusterStateStore openStateStore() throws IOException {
+        return new ClusterStateStore(new ConfigManager());
+    }
+    
+    static Optional<ClusterInstance> findCluster(ClusterStateStore store, String idOrName) throws IOException {
+        Optional<ClusterInstance> instance = store.find(idOrName);
+        if (instance.isEmpty()) {
+            System.err.println("No cluster found with ID or name: " + idOrName);
+        }
+        return instance;
+    }
+    
+    // Clusters not yet destroyed whose name matches the glob and that carry all of the labels
+    static List<ClusterInstance> findMatching(ClusterStateStore store, Map<String, String> labels, String glob)
+            throws IOException {
+        Pattern namePattern = glob != null ? globToPattern(glob) : null;
+        return store.list().stream()
+            .filter(c -> c.getStatus() != ClusterInstance.Status.DESTROYED)
+            .filter(c -> namePattern == null || namePattern.matcher(c.getName()).matches())
+            .filter(c -> c.getSpec().getLabels().entrySet().containsAll(labels.entrySet()))
+            .collect(Collectors.toList());
+    }
+    
+    // Shell-style name pattern: * matches any run of characters, ? any single one
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.split("(?=[*?])|(?<=[*?])")) {
+            if (part.equals("*")) {
+                regex.append(".*");
+            } else if (part.equals("?")) {
+                regex.append('.');
+            } else if (!part.isEmpty()) {
+                regex.append(Pattern.quote(part));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
\ No newline at end of file
@@ -56,6 +56,8 @@ public class ConfigCommand implements Callable<Integer> {
             System.out.printf("  interactiveMode:        %s%n", config.isInteractiveMode());
             System.out.printf("  defaultDataPath:        %s%n", config.getDefaultDataPath());
             System.out.printf("  defaultLogPath:         %s%n", config.getDefaultLogPath());
+            System.out.printf("  versionsDiskBudgetMb:   %s%n",
+                config.getVersionsDiskBudgetMb() > 0 ? config.getVersionsDiskBudgetMb() : "(unlimited)");
             System.out.println();
             
             System.out.println("Atlas Settings:");
@@ -109,6 +111,22 @@ public class ConfigCommand implements Callable<Integer> {
                 case "defaultlogpath":
                     config.setDefaultLogPath(value);
                     break;
+                case "versionsdiskbudgetmb": {
+                    long budget;
+                    try {
+                        budget = Long.parseLong(value.trim());
+                    } catch (NumberFormatException e) {
+                        budget = -1;
+                    }
+                    // Kept in bytes once loaded, so it must fit in a long after the conversion
+                    if (budget < 0 || budget > Long.MAX_VALUE / (1024 * 1024)) {
+                        System.err.println("versionsDiskBudgetMb must be a whole number of megabytes, or 0 for no limit: "
+                            + value);
+                        return 1;
+                    }
+                    config.setVersionsDiskBudgetMb(budget);
+                    break;
+                }
                 case "defaultatlasprojectid":
                     config.setDefaultAtlasProjectId(value);
                     break;
@@ -149,6 +167,7 @@ public class ConfigCommand implements Callable<Integer> {
                 case "interactivemode" -> String.valueOf(config.isInteractiveMode());
                 case "defaultdatapath" -> config.getDefaultDataPath();
                 case "defaultlogpath" -> config.getDefaultLogPath();
+                case "versionsdiskbudgetmb" -> String.valueOf(config.getVersionsDiskBudgetMb());
                 case "defaultatlasprojectid" -> config.getDefaultAtlasProjectId();
                 case "defaultinstancesize" -> config.getDefaultInstanceSize();
                 case "defaultregion" -> config.getDefaultRegion();
@@ -183,6 +202,10 @@ public class ConfigCommand implements Callable<Integer> {
                     config.setDefaultAtlasProjectId(null);
                     configManager.saveConfig();
                     break;
+                case "versionsdiskbudgetmb":
+                    config.setVersionsDiskBudgetMb(0);
+                    configManager.saveConfig();
+                    break;
                 default:
                     configManager.removeCustomProperty(key);
                     break;
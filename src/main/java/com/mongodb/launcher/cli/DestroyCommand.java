@@ -1,8 +1,18 @@
 package com.mongodb.launcher.cli;
 
+import com.mongodb.launcher.BatchResult;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.state.ClusterStateStore;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -11,13 +21,78 @@ import java.util.concurrent.Callable;
 )
 public class DestroyCommand implements Callable<Integer> {
     
-    @Parameters(index = "0", description = "Cluster ID or name")
+    @Parameters(index = "0", arity = "0..1", description = "Cluster ID or name")
     private String clusterId;
     
+    @Option(names = {"-l", "--label"}, description = "Destroy every cluster with this label, key=value (repeatable, all must match)")
+    private Map<String, String> labels = new LinkedHashMap<>();
+    
+    @Option(names = {"--pattern"}, description = "Destroy every cluster whose name matches this glob, e.g. 'nightly-*'")
+    private String pattern;
+    
+    @Option(names = {"--parallelism"}, description = "Clusters destroyed at the same time", defaultValue = "4")
+    private int parallelism;
+    
     @Override
     public Integer call() throws Exception {
-        System.out.println("Destroying cluster: " + clusterId);
-        // TODO: Implement cluster destruction
-        return 0;
+        boolean bulk = !labels.isEmpty() || pattern != null;
+        if (bulk == (clusterId != null)) {
+            System.err.println("Specify either a cluster ID or name, or --label/--pattern");
+            return 1;
+        }
+        if (parallelism < 1) {
+            System.err.println("--parallelism must be at least 1");
+            return 1;
+        }
+        
+        ClusterStateStore store = CliSupport.openStateStore();
+        return bulk ? destroyMatching(store) : destroyOne(store);
+    }
+    
+    private int destroyOne(ClusterStateStore store) throws IOException {
+        Optional<ClusterInstance> found = CliSupport.findCluster(store, clusterId);
+        if (found.isEmpty()) {
+            return 1;
+        }
+        
+        ClusterInstance cluster = found.get();
+        System.out.println("Destroying cluster: " + cluster.getName());
+        
+        try {
+            CliSupport.createClusterManager().destroy(cluster);
+            System.out.println("Cluster destroyed");
+            return 0;
+        } catch (ClusterLaunchException e) {
+            System.err.println("Failed to destroy cluster: " + e.getMessage());
+            return 1;
+        } finally {
+            store.save(cluster);
+        }
+    }
+    
+    private int destroyMatching(ClusterStateStore store) throws IOException {
+        List<ClusterInstance> clusters = CliSupport.findMatching(store, labels, pattern);
+        
+        if (clusters.isEmpty()) {
+            System.out.println("No clusters match");
+            return 0;
+        }
+        
+        System.out.println("Destroying " + clusters.size() + " cluster(s)");
+        List<BatchResult> results = CliSupport.createClusterManager().destroyAll(clusters, parallelism);
+        
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            // Saved either way: a failed destroy still records which members are left
+            store.save(clusters.get(i));
+            if (result.isSuccess()) {
+                System.out.println("Destroyed " + result.getName());
+            } else {
+                failed++;
+                System.err.println("Failed to destroy " + result.getName() + ": " + result.getError().getMessage());
+            }
+        }
+        return failed == 0 ? 0 : 1;
     }
 }
\ No newline at end of file
@@ -2,17 +2,30 @@ package com.mongodb.launcher.cli;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.launcher.*;
-import com.mongodb.launcher.atlas.AtlasClusterLauncher;
 import com.mongodb.launcher.config.ConfigManager;
 import com.mongodb.launcher.config.InteractivePrompt;
-import com.mongodb.launcher.local.LocalClusterLauncher;
+import com.mongodb.launcher.state.ClusterStateStore;
+import com.mongodb.launcher.state.LaunchHistory;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Command(
     name = "launch",
@@ -32,12 +45,21 @@ public class LaunchCommand implements Callable<Integer> {
     @Option(names = {"--mongo-version"}, description = "MongoDB version", defaultValue = "7.0")
     private String mongoVersion;
     
-    @Option(names = {"-p", "--port"}, description = "Port (local clusters only)", defaultValue = "27017")
+    @Option(names = {"-p", "--port"}, description = "Port (local clusters only, 0 to pick free ports)", defaultValue = "27017")
     private int port;
     
     @Option(names = {"--replica-set-size"}, description = "Replica set size (local clusters only)", defaultValue = "3")
     private int replicaSetSize;
     
+    @Option(names = {"--fast-election"}, description = "Use short election/heartbeat timeouts (local replica sets only)")
+    private boolean fastElection;
+    
+    @Option(names = {"--storage"}, description = "Storage profile: persistent, memory (local clusters only)", defaultValue = "persistent")
+    private LocalClusterSpec.StorageProfile storage;
+    
+    @Option(names = {"--template"}, description = "Seed the data directories from a template (local clusters only)")
+    private String template;
+    
     @Option(names = {"--project-id"}, description = "Atlas project ID (atlas clusters only)")
     private String projectId;
     
@@ -47,14 +69,24 @@ public class LaunchCommand implements Callable<Integer> {
     @Option(names = {"--non-interactive"}, description = "Disable interactive prompts")
     private boolean nonInteractive;
     
+    @Option(names = {"-l", "--label"}, description = "Label the cluster, key=value (repeatable)")
+    private Map<String, String> labels = new LinkedHashMap<>();
+    
+    @Option(names = {"--batch"}, description = "Launch every spec file in a directory or matching a glob, e.g. 'specs/*.json'")
+    private String batch;
+    
+    @Option(names = {"--parallelism"}, description = "Clusters launched at the same time with --batch", defaultValue = "4")
+    private int parallelism;
+    
     @Override
     public Integer call() throws Exception {
         ConfigManager configManager = new ConfigManager();
+        ClusterManager manager = CliSupport.createClusterManager();
+        ClusterStateStore store = new ClusterStateStore(configManager);
         
-        ClusterManager manager = new ClusterManager(List.of(
-            new AtlasClusterLauncher(),
-            new LocalClusterLauncher()
-        ));
+        if (batch != null) {
+            return launchBatch(manager, store);
+        }
         
         ClusterSpec spec;
         
@@ -64,9 +96,24 @@ public class LaunchCommand implements Callable<Integer> {
         } else {
             spec = createSpecFromOptions(configManager);
         }
+        spec.getLabels().putAll(labels);
+        
+        try {
+            store.reserveName(spec.getName());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
         
         try {
             ClusterInstance instance = manager.launch(spec);
+            try {
+                store.save(instance);
+            } catch (IOException e) {
+                System.err.println("Failed to launch cluster: " + discard(manager, instance, e));
+                return 1;
+            }
+            recordTimings(store, instance);
             System.out.println("Cluster launched successfully!");
             System.out.println("ID: " + instance.getId());
             System.out.println("Name: " + instance.getName());
@@ -77,6 +124,134 @@ public class LaunchCommand implements Callable<Integer> {
         } catch (ClusterLaunchException e) {
             System.err.println("Failed to launch cluster: " + e.getMessage());
             return 1;
+        } finally {
+            store.releaseName(spec.getName());
+        }
+    }
+    
+    // A cluster the state store has no record of could never be listed, stopped or destroyed,
+    // so one that cannot be recorded is destroyed right away. Returns the error to report.
+    private static String discard(ClusterManager manager, ClusterInstance instance, IOException error) {
+        String message = "launched, but could not be recorded (" + error.getMessage() + ")";
+        try {
+            manager.destroy(instance);
+            return message + "; destroyed it";
+        } catch (ClusterLaunchException e) {
+            return message + "; destroying it failed too, it may still be running: " + e.getMessage();
+        }
+    }
+    
+    private int launchBatch(ClusterManager manager, ClusterStateStore store) throws IOException {
+        if (parallelism < 1) {
+            System.err.println("--parallelism must be at least 1");
+            return 1;
+        }
+        
+        List<Path> files = resolveBatchFiles(batch);
+        if (files.isEmpty()) {
+            System.err.println("No spec files found for " + batch);
+            return 1;
+        }
+        
+        // Specs that cannot be read or whose name is taken are reported without being launched;
+        // the others have their names reserved until they are recorded
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> rejected = new LinkedHashMap<>();
+        List<ClusterSpec> specs = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Path file : files) {
+            ClusterSpec spec;
+            try {
+                spec = mapper.readValue(file.toFile(), ClusterSpec.class);
+            } catch (IOException e) {
+                rejected.put(file.getFileName().toString(), "Invalid spec file: " + e.getMessage().split("\n")[0]);
+                continue;
+            }
+            
+            if (!names.add(spec.getName())) {
+                rejected.put(spec.getName(), "Duplicate cluster name in batch (" + file.getFileName() + ")");
+                continue;
+            }
+            try {
+                store.reserveName(spec.getName());
+            } catch (IOException e) {
+                rejected.put(spec.getName(), e.getMessage());
+                continue;
+            }
+            spec.getLabels().putAll(labels);
+            specs.add(spec);
+        }
+        
+        System.out.println("Launching " + specs.size() + " cluster(s), " + parallelism + " at a time");
+        List<BatchResult> results;
+        int failed = 0;
+        try {
+            results = manager.launchAll(specs, parallelism);
+            System.out.printf("%-24s %-8s %8s  %s%n", "NAME", "RESULT", "SECONDS", "CONNECTION / ERROR");
+            for (BatchResult result : results) {
+                boolean ready = result.isSuccess();
+                String outcome;
+                if (ready) {
+                    try {
+                        store.save(result.getInstance());
+                        recordTimings(store, result.getInstance());
+                        outcome = result.getInstance().getConnectionString();
+                    } catch (IOException e) {
+                        outcome = discard(manager, result.getInstance(), e);
+                        ready = false;
+                    }
+                } else {
+                    outcome = result.getError().getMessage();
+                }
+                if (!ready) {
+                    failed++;
+                }
+                System.out.printf("%-24s %-8s %8.1f  %s%n",
+                    result.getName(),
+                    ready ? "READY" : "FAILED",
+                    result.getDurationMillis() / 1000.0,
+                    outcome);
+            }
+        } finally {
+            for (ClusterSpec spec : specs) {
+                store.releaseName(spec.getName());
+            }
+        }
+        rejected.forEach((name, reason) -> System.out.printf("%-24s %-8s %8s  %s%n", name, "SKIPPED", "-", reason));
+        
+        System.out.println((results.size() - failed) + " launched, " + failed + " failed, " + rejected.size() + " skipped");
+        return failed == 0 && rejected.isEmpty() ? 0 : 1;
+    }
+    
+    // A directory means every *.json file in it; anything else is a glob over file names in its
+    // parent directory
+    static List<Path> resolveBatchFiles(String location) throws IOException {
+        Path path = Paths.get(location);
+        String pattern = "*.json";
+        if (!Files.isDirectory(path)) {
+            pattern = path.getFileName().toString();
+            path = path.getParent() != null ? path.getParent() : Paths.get(".");
+        }
+        if (!Files.isDirectory(path)) {
+            return new ArrayList<>();
+        }
+        
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.list(path)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(f -> matcher.matches(f.getFileName()))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+    
+    // A launch that succeeded should not be reported as failed because its timings could not be kept
+    private static void recordTimings(ClusterStateStore store, ClusterInstance instance) {
+        try {
+            new LaunchHistory(store).record(instance);
+        } catch (IOException e) {
+            System.err.println("Warning: failed to record launch timings: " + e.getMessage());
         }
     }
     
@@ -194,6 +369,9 @@ public class LaunchCommand implements Callable<Integer> {
         } else if (replicaSetSize != 3) {
             spec.setReplicaSetSize(replicaSetSize);
         }
+        spec.setFastElection(fastElection);
+        spec.setTemplate(template);
+        spec.setStorage(storage);
         
         // Data and log paths
         String dataPath = configManager.getConfig().getDefaultDataPath();
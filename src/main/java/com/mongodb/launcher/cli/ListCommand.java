@@ -1,7 +1,12 @@
 package com.mongodb.launcher.cli;
 
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterManager;
+import com.mongodb.launcher.state.ClusterStateStore;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -10,10 +15,39 @@ import java.util.concurrent.Callable;
 )
 public class ListCommand implements Callable<Integer> {
     
+    @Option(names = {"-a", "--all"}, description = "Include destroyed clusters")
+    private boolean all;
+    
     @Override
     public Integer call() throws Exception {
-        System.out.println("Listing all clusters:");
-        // TODO: Implement cluster listing
+        ClusterStateStore store = CliSupport.openStateStore();
+        ClusterManager manager = CliSupport.createClusterManager();
+        
+        List<ClusterInstance> clusters = store.list();
+        if (!all) {
+            clusters.removeIf(c -> c.getStatus() == ClusterInstance.Status.DESTROYED);
+        }
+        
+        if (clusters.isEmpty()) {
+            System.out.println("No clusters found");
+            return 0;
+        }
+        
+        System.out.printf("%-40s %-24s %-6s %-10s %s%n", "ID", "NAME", "TYPE", "STATUS", "CONNECTION");
+        for (ClusterInstance cluster : clusters) {
+            ClusterInstance.Status previous = cluster.getStatus();
+            ClusterInstance.Status status = manager.getStatus(cluster);
+            if (status != previous) {
+                store.save(cluster);
+            }
+            
+            System.out.printf("%-40s %-24s %-6s %-10s %s%n",
+                cluster.getId(),
+                cluster.getName(),
+                cluster.getSpec().getType().toString().toLowerCase(),
+                status,
+                cluster.getConnectionString() != null ? cluster.getConnectionString() : "");
+        }
         return 0;
     }
 }
\ No newline at end of file
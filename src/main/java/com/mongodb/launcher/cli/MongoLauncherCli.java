@@ -14,6 +14,8 @@ import picocli.CommandLine.Command;
         StopCommand.class,
         DestroyCommand.class,
         ListCommand.class,
+        TemplateCommand.class,
+        TimingsCommand.class,
         VersionCommand.class,
         ConfigCommand.class
     }
@@ -26,7 +28,10 @@ public class MongoLauncherCli implements Runnable {
     }
     
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new MongoLauncherCli()).execute(args);
+        // Enum options such as --storage take lower-case values
+        int exitCode = new CommandLine(new MongoLauncherCli())
+            .setCaseInsensitiveEnumValuesAllowed(true)
+            .execute(args);
         System.exit(exitCode);
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.mongodb.launcher.cli;
 
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterManager;
+import com.mongodb.launcher.ClusterMember;
+import com.mongodb.launcher.state.ClusterStateStore;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -16,8 +21,38 @@ public class StatusCommand implements Callable<Integer> {
     
     @Override
     public Integer call() throws Exception {
-        System.out.println("Getting status for cluster: " + clusterId);
-        // TODO: Implement status checking
+        ClusterStateStore store = CliSupport.openStateStore();
+        Optional<ClusterInstance> found = CliSupport.findCluster(store, clusterId);
+        if (found.isEmpty()) {
+            return 1;
+        }
+        
+        ClusterInstance cluster = found.get();
+        ClusterManager manager = CliSupport.createClusterManager();
+        ClusterInstance.Status previous = cluster.getStatus();
+        ClusterInstance.Status status = manager.getStatus(cluster);
+        if (status != previous) {
+            store.save(cluster);
+        }
+        
+        System.out.println("ID: " + cluster.getId());
+        System.out.println("Name: " + cluster.getName());
+        System.out.println("Type: " + cluster.getSpec().getType().toString().toLowerCase());
+        System.out.println("Status: " + status);
+        System.out.println("Connection String: " + cluster.getConnectionString());
+        System.out.println("Created: " + cluster.getCreatedAt());
+        
+        if (!cluster.getMembers().isEmpty()) {
+            System.out.println("Members:");
+            for (ClusterMember member : cluster.getMembers()) {
+                System.out.printf("  %-18s %s:%d  pid %d%s%n",
+                    member.getRole(),
+                    member.getHost(),
+                    member.getPort(),
+                    member.getPid(),
+                    member.getReplicaSetName() != null ? "  (" + member.getReplicaSetName() + ")" : "");
+            }
+        }
         return 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.mongodb.launcher.cli;
+
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.local.DataTemplate;
+import com.mongodb.launcher.local.TemplateManager;
+import com.mongodb.launcher.state.ClusterStateStore;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "template",
+    description = "Manage data templates for local clusters",
+    subcommands = {
+        TemplateCommand.CreateTemplateCommand.class,
+        TemplateCommand.ListTemplatesCommand.class,
+        TemplateCommand.RemoveTemplateCommand.class
+    }
+)
+public class TemplateCommand implements Callable<Integer> {
+    
+    @Override
+    public Integer call() throws Exception {
+        System.out.println("Data Templates");
+        System.out.println("Commands:");
+        System.out.println("  create  - Capture a cluster's data as a template");
+        System.out.println("  list    - List templates");
+        System.out.println("  remove  - Remove a template");
+        System.out.println();
+        System.out.println("Launch from a template with: launch --template <name>");
+        return 0;
+    }
+    
+    @Command(name = "create", description = "Capture a local cluster's data as a named template")
+    static class CreateTemplateCommand implements Callable<Integer> {
+        
+        @Parameters(index = "0", description = "Cluster ID or name")
+        private String clusterId;
+        
+        @Parameters(index = "1", description = "Template name")
+        private String templateName;
+        
+        @Override
+        public Integer call() throws Exception {
+            ClusterStateStore store = CliSupport.openStateStore();
+            Optional<ClusterInstance> cluster = CliSupport.findCluster(store, clusterId);
+            if (cluster.isEmpty()) {
+                return 1;
+            }
+            
+            try {
+                DataTemplate template = new TemplateManager().capture(cluster.get(), templateName);
+                System.out.println("Created template " + template.getName() + " from cluster " + cluster.get().getName()
+                    + " (" + template.getSizeBytes() / (1024 * 1024) + " MB)");
+                return 0;
+            } catch (ClusterLaunchException e) {
+                System.err.println("Failed to create template: " + e.getMessage());
+                return 1;
+            }
+        }
+    }
+    
+    @Command(name = "list", description = "List data templates")
+    static class ListTemplatesCommand implements Callable<Integer> {
+        
+        @Override
+        public Integer call() throws Exception {
+            List<DataTemplate> templates = new TemplateManager().list();
+            
+            if (templates.isEmpty()) {
+                System.out.println("No templates found");
+                return 0;
+            }
+            
+            System.out.printf("%-24s %-10s %-16s %10s  %s%n", "NAME", "VERSION", "REPLICA SET", "SIZE (MB)", "SOURCE");
+            for (DataTemplate template : templates) {
+                System.out.printf("%-24s %-10s %-16s %10d  %s%n",
+                    template.getName(),
+                    template.getMongoVersion(),
+                    template.getReplicaSetName() != null ? template.getReplicaSetName() : "-",
+                    template.getSizeBytes() / (1024 * 1024),
+                    template.getSourceCluster());
+            }
+            return 0;
+        }
+    }
+    
+    @Command(name = "remove", description = "Remove a data template")
+    static class RemoveTemplateCommand implements Callable<Integer> {
+        
+        @Parameters(index = "0", description = "Template name")
+        private String templateName;
+        
+        @Override
+        public Integer call() throws Exception {
+            if (!new TemplateManager().remove(templateName)) {
+                System.err.println("No template found with name: " + templateName);
+                return 1;
+            }
+            System.out.println("Removed template " + templateName);
+            return 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.mongodb.launcher.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.state.ClusterStateStore;
+import com.mongodb.launcher.state.LaunchHistory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "timings",
+    description = "Show how long each launch phase took, for one cluster or as percentiles over recent launches"
+)
+public class TimingsCommand implements Callable<Integer> {
+    
+    @Parameters(index = "0", arity = "0..1", description = "Cluster ID or name")
+    private String clusterId;
+    
+    @Option(names = {"-n", "--last"}, description = "Number of recent launches to summarize", defaultValue = "50")
+    private int last;
+    
+    @Option(names = {"--json"}, description = "Print JSON instead of a table")
+    private boolean json;
+    
+    private final ObjectMapper mapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .enable(SerializationFeature.INDENT_OUTPUT);
+    
+    @Override
+    public Integer call() throws Exception {
+        ClusterStateStore store = CliSupport.openStateStore();
+        return clusterId != null ? showCluster(store) : showSummary(store);
+    }
+    
+    private int showCluster(ClusterStateStore store) throws Exception {
+        Optional<ClusterInstance> found = CliSupport.findCluster(store, clusterId);
+        if (found.isEmpty()) {
+            return 1;
+        }
+        
+        ClusterInstance cluster = found.get();
+        Map<String, Long> phases = LaunchHistory.timingsOf(cluster);
+        if (phases.isEmpty()) {
+            System.err.println("No launch timings recorded for cluster " + cluster.getName());
+            return 1;
+        }
+        
+        if (json) {
+            Map<String, Object> output = new LinkedHashMap<>();
+            output.put("id", cluster.getId());
+            output.put("name", cluster.getName());
+            output.put("phases", phases);
+            System.out.println(mapper.writeValueAsString(output));
+            return 0;
+        }
+        
+        System.out.println("Launch timings of " + cluster.getName() + " (" + cluster.getId() + ")");
+        System.out.printf("%-28s %10s%n", "PHASE", "MS");
+        phases.forEach((phase, millis) -> System.out.printf("%-28s %10d%n", phase, millis));
+        return 0;
+    }
+    
+    private int showSummary(ClusterStateStore store) throws Exception {
+        List<LaunchHistory.Entry> entries = new LaunchHistory(store).recent(last);
+        Map<String, LaunchHistory.PhaseStats> stats = LaunchHistory.summarize(entries);
+        
+        if (json) {
+            Map<String, Object> output = new LinkedHashMap<>();
+            output.put("launches", entries.size());
+            output.put("phases", stats);
+            System.out.println(mapper.writeValueAsString(output));
+            return 0;
+        }
+        
+        if (entries.isEmpty()) {
+            System.out.println("No launches recorded");
+            return 0;
+        }
+        
+        System.out.println("Launch phase durations in ms over the last " + entries.size() + " launch(es)");
+        System.out.printf("%-20s %6s %8s %8s %8s %8s%n", "PHASE", "COUNT", "P50", "P90", "P99", "MAX");
+        stats.forEach((phase, s) -> System.out.printf("%-20s %6d %8d %8d %8d %8d%n",
+            phase, s.getCount(), s.getP50(), s.getP90(), s.getP99(), s.getMax()));
+        return 0;
+    }
+}
\ No newline at end of file
@@ -1,13 +1,24 @@
 package com.mongodb.launcher.cli;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.ClusterManager;
+import com.mongodb.launcher.ClusterSpec;
+import com.mongodb.launcher.util.AsyncSupport;
 import com.mongodb.launcher.version.MongoVersion;
 import com.mongodb.launcher.version.MongoVersionManager;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @Command(
     name = "version",
@@ -17,6 +28,7 @@ import java.util.concurrent.Callable;
         VersionCommand.InstallVersionCommand.class,
         VersionCommand.RemoveVersionCommand.class,
         VersionCommand.AvailableVersionsCommand.class,
+        VersionCommand.PrefetchCommand.class,
         VersionInfoCommand.class
     }
 )
@@ -30,6 +42,7 @@ public class VersionCommand implements Callable<Integer> {
         System.out.println("  install   - Install a specific version");
         System.out.println("  remove    - Remove an installed version");
         System.out.println("  available - List available versions for download");
+        System.out.println("  prefetch  - Install the versions spec files need ahead of launching them");
         System.out.println("  info      - Show installation information and locations");
         return 0;
     }
@@ -138,4 +151,49 @@ public class VersionCommand implements Callable<Integer> {
             }
         }
     }
+    
+    @Command(name = "prefetch", description = "Install the MongoDB versions that cluster spec files need")
+    static class PrefetchCommand implements Callable<Integer> {
+        
+        @Parameters(arity = "1..*", description = "Spec files, directories of spec files, or glob patterns")
+        private List<String> locations;
+        
+        @Override
+        public Integer call() throws Exception {
+            List<Path> files = new ArrayList<>();
+            for (String location : locations) {
+                files.addAll(LaunchCommand.resolveBatchFiles(location));
+            }
+            if (files.isEmpty()) {
+                System.err.println("No spec files found for " + String.join(" ", locations));
+                return 1;
+            }
+            
+            // All downloads start before waiting on any of them
+            ClusterManager manager = CliSupport.createClusterManager();
+            ObjectMapper mapper = new ObjectMapper();
+            Map<Path, CompletableFuture<Void>> prefetches = new LinkedHashMap<>();
+            int failed = 0;
+            for (Path file : files) {
+                try {
+                    ClusterSpec spec = mapper.readValue(file.toFile(), ClusterSpec.class);
+                    prefetches.put(file, manager.prefetch(spec));
+                } catch (IOException e) {
+                    System.err.println(file.getFileName() + ": Invalid spec file: " + e.getMessage().split("\n")[0]);
+                    failed++;
+                }
+            }
+            
+            for (Map.Entry<Path, CompletableFuture<Void>> entry : prefetches.entrySet()) {
+                try {
+                    AsyncSupport.join(entry.getValue());
+                    System.out.println(entry.getKey().getFileName() + ": ready");
+                } catch (ClusterLaunchException e) {
+                    System.err.println(entry.getKey().getFileName() + ": " + e.getMessage());
+                    failed++;
+                }
+            }
+            return failed == 0 ? 0 : 1;
+        }
+    }
 }
\ No newline at end of file
@@ -31,6 +31,10 @@ public class UserConfig {
     @JsonProperty("defaultLogPath")
     private String defaultLogPath;
     
+    // Installed versions beyond this are evicted, least recently used first; 0 for no limit
+    @JsonProperty("versionsDiskBudgetMb")
+    private long versionsDiskBudgetMb;
+    
     @JsonProperty("customProperties")
     private Map<String, String> customProperties = new HashMap<>();
     
@@ -117,6 +121,14 @@ public class UserConfig {
         this.defaultLogPath = defaultLogPath;
     }
     
+    public long getVersionsDiskBudgetMb() {
+        return versionsDiskBudgetMb;
+    }
+    
+    public void setVersionsDiskBudgetMb(long versionsDiskBudgetMb) {
+        this.versionsDiskBudgetMb = versionsDiskBudgetMb;
+    }
+    
     public Map<String, String> getCustomProperties() {
         if (customProperties == null) {
             customProperties = new HashMap<>();
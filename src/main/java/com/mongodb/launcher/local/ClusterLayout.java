@@ -0,0 +1,100 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.launcher.LocalClusterSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Port assignment for every process in a local cluster. Sharded clusters follow the mlaunch
+// convention: mongos routers first, then each shard's members, then the config servers.
+class ClusterLayout {
+    
+    private final List<Integer> mongosPorts;
+    private final List<ReplicaSetLayout> replicaSets;
+    private final ReplicaSetLayout configServers;
+    
+    private ClusterLayout(List<Integer> mongosPorts, List<ReplicaSetLayout> replicaSets, ReplicaSetLayout configServers) {
+        this.mongosPorts = mongosPorts;
+        this.replicaSets = replicaSets;
+        this.configServers = configServers;
+    }
+    
+    static ClusterLayout of(LocalClusterSpec spec, int basePort) {
+        return of(spec, basePort, spec.getName());
+    }
+    
+    // replicaSetName overrides the cluster name as the set name of a plain replica set
+    static ClusterLayout of(LocalClusterSpec spec, int basePort, String replicaSetName) {
+        int port = basePort;
+        
+        switch (spec.getTopology()) {
+            case REPLICA_SET:
+                return new ClusterLayout(List.of(),
+                    List.of(new ReplicaSetLayout(replicaSetName, range(port, spec.getReplicaSetSize()))), null);
+            case SHARDED:
+                List<Integer> mongosPorts = range(port, spec.getMongosCount());
+                port += spec.getMongosCount();
+                
+                List<ReplicaSetLayout> shards = new ArrayList<>();
+                for (int i = 0; i < spec.getShardCount(); i++) {
+                    shards.add(new ReplicaSetLayout(spec.getName() + "-shard" + i, range(port, spec.getReplicaSetSize())));
+                    port += spec.getReplicaSetSize();
+                }
+                
+                ReplicaSetLayout config = new ReplicaSetLayout(spec.getName() + "-config",
+                    range(port, spec.getConfigServerCount()));
+                return new ClusterLayout(mongosPorts, shards, config);
+            default:
+                return new ClusterLayout(List.of(), List.of(new ReplicaSetLayout(null, List.of(port))), null);
+        }
+    }
+    
+    private static List<Integer> range(int start, int count) {
+        List<Integer> ports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ports.add(start + i);
+        }
+        return Collections.unmodifiableList(ports);
+    }
+    
+    List<Integer> getMongosPorts() {
+        return mongosPorts;
+    }
+    
+    // The standalone member, the replica set, or each shard
+    List<ReplicaSetLayout> getReplicaSets() {
+        return replicaSets;
+    }
+    
+    ReplicaSetLayout getConfigServers() {
+        return configServers;
+    }
+    
+    static class ReplicaSetLayout {
+        private final String name;
+        private final List<Integer> ports;
+        
+        ReplicaSetLayout(String name, List<Integer> ports) {
+            this.name = name;
+            this.ports = ports;
+        }
+        
+        String getName() {
+            return name;
+        }
+        
+        List<Integer> getPorts() {
+            return ports;
+        }
+        
+        String getSeedList() {
+            return ports.stream().map(MongoCommands::hostAndPort).collect(Collectors.joining(","));
+        }
+        
+        String getConnectionTarget() {
+            return name + "/" + getSeedList();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.mongodb.launcher.local;
+
+import java.time.LocalDateTime;
+
+public class DataTemplate {
+    
+    private String name;
+    private String mongoVersion;
+    private String replicaSetName;
+    private String sourceCluster;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+    
+    public DataTemplate() {}
+    
+    public DataTemplate(String name, String mongoVersion, String replicaSetName, String sourceCluster) {
+        this.name = name;
+        this.mongoVersion = mongoVersion;
+        this.replicaSetName = replicaSetName;
+        this.sourceCluster = sourceCluster;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getMongoVersion() {
+        return mongoVersion;
+    }
+    
+    public void setMongoVersion(String mongoVersion) {
+        this.mongoVersion = mongoVersion;
+    }
+    
+    // Set when the data came from a replica set member; clones must join a set of the same name
+    public String getReplicaSetName() {
+        return replicaSetName;
+    }
+    
+    public void setReplicaSetName(String replicaSetName) {
+        this.replicaSetName = replicaSetName;
+    }
+    
+    public String getSourceCluster() {
+        return sourceCluster;
+    }
+    
+    public void setSourceCluster(String sourceCluster) {
+        this.sourceCluster = sourceCluster;
+    }
+    
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
\ No newline at end of file
@@ -1,63 +1,240 @@
 package com.mongodb.launcher.local;
 
+import com.mongodb.client.MongoClient;
 import com.mongodb.launcher.*;
+import com.mongodb.launcher.util.AsyncSupport;
+import com.mongodb.launcher.util.LaunchTimings;
 import com.mongodb.launcher.version.MongoVersion;
 import com.mongodb.launcher.version.MongoVersionManager;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class LocalClusterLauncher implements ClusterLauncher<LocalClusterSpec> {
     
     private static final Logger logger = LoggerFactory.getLogger(LocalClusterLauncher.class);
+    
+    private static final long STARTUP_TIMEOUT_MS = 60_000;
+    private static final long ELECTION_TIMEOUT_MS = 60_000;
+    private static final long ADD_SHARD_TIMEOUT_MS = 30_000;
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+    
+    // Settings for the MEMORY storage profile
+    private static final Path SHM_ROOT = Paths.get("/dev/shm");
+    private static final String MEMORY_CACHE_SIZE_GB = "0.25";
+    private static final int MEMORY_OPLOG_SIZE_MB = 64;
+    private static final long MEMORY_BYTES_PER_MEMBER = 256L * 1024 * 1024;
+    private static final MongoVersion NOJOURNAL_REMOVED_IN = new MongoVersion(6, 1);
+    
     private final MongoVersionManager versionManager;
+    private final TemplateManager templates;
+    private final PortAllocator ports;
+    private final ExecutorService executor;
+    private final ProcessSupervisor supervisor;
+    // Prefetches in progress by version and topology, so specs that need the same binaries share one
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> prefetches = new ConcurrentHashMap<>();
     
     public LocalClusterLauncher() {
-        this.versionManager = new MongoVersionManager();
+        this(new MongoVersionManager());
     }
     
     public LocalClusterLauncher(MongoVersionManager versionManager) {
+        this(versionManager, new TemplateManager(), new PortAllocator());
+    }
+    
+    public LocalClusterLauncher(MongoVersionManager versionManager, TemplateManager templates, PortAllocator ports) {
         this.versionManager = versionManager;
+        this.templates = templates;
+        this.ports = ports;
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "local-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.supervisor = new ProcessSupervisor(executor);
+    }
+    
+    // For embedders that keep the launcher for many launches, such as behind a ClusterPool: version
+    // lookups then follow filesystem notifications from a watch thread instead of checking the
+    // directory mtime. Not worth the thread for a single CLI command.
+    public LocalClusterLauncher watchInstalledVersions() {
+        versionManager.watchInstalledVersions();
+        return this;
     }
     
     @Override
     public ClusterInstance launch(LocalClusterSpec spec) throws ClusterLaunchException {
-        logger.info("Launching local cluster: {}", spec.getName());
+        return launch(spec, LaunchListener.NONE, () -> false);
+    }
+    
+    // Starting processes needs a thread for the whole launch, so this runs the blocking launch
+    // on the launcher's pool and checks for cancellation after every phase
+    @Override
+    public CompletableFuture<ClusterInstance> launchAsync(LocalClusterSpec spec, LaunchListener listener) {
+        CompletableFuture<ClusterInstance> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                ClusterInstance instance = launch(spec, listener, future::isCancelled);
+                if (!future.complete(instance)) {
+                    // Cancelled after the last phase, so nobody will ever get this cluster
+                    logger.info("Launch of {} was cancelled, destroying it", spec.getName());
+                    destroy(instance);
+                }
+            } catch (ClusterLaunchException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+    
+    private ClusterInstance launch(LocalClusterSpec requested, LaunchListener listener, BooleanSupplier cancelled)
+            throws ClusterLaunchException {
+        logger.info("Launching local cluster: {}", requested.getName());
+        LocalClusterSpec spec = withResolvedVersion(requested);
         
         ClusterInstance instance = new ClusterInstance(
             generateClusterId(spec),
             spec.getName(),
             spec
         );
+        AsyncSupport.notifyStatus(listener, instance);
         
+        LaunchTimings timings = new LaunchTimings((phase, millis) -> {
+            AsyncSupport.notifyPhase(listener, instance, phase, millis);
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Launch of " + spec.getName() + " was cancelled");
+            }
+        });
+        boolean portsReserved = false;
+        // Any download runs while ports, template and directories are prepared. Its phases are
+        // reported but never cancel it: other launches may be waiting on the same install, and a
+        // finished download is worth keeping even when this launch fails.
+        LaunchTimings installTimings = new LaunchTimings((phase, millis) -> {
+            if (instance.getStatus() != ClusterInstance.Status.ERROR) {
+                AsyncSupport.notifyPhase(listener, instance, phase, millis);
+            }
+        });
+        CompletableFuture<Void> install = CompletableFuture.runAsync(() -> {
+            try {
+                ensureVersionInstalled(spec, installTimings);
+            } catch (ClusterLaunchException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
         try {
-            ensureVersionInstalled(spec);
+            long start = timings.start();
+            reservePorts(spec, instance.getId());
+            portsReserved = true;
+            timings.record(LaunchTimings.RESERVE_PORTS, start);
+            
+            DataTemplate template = resolveTemplate(spec);
+            // A replica set cloned from a template must keep the set name stored in its data
+            String replicaSetName = template != null && template.getReplicaSetName() != null
+                ? template.getReplicaSetName() : spec.getName();
+            ClusterLayout layout = ClusterLayout.of(spec, spec.getPort(), replicaSetName);
+            
+            start = timings.start();
             setupDirectories(spec);
-            startMongodProcesses(spec, instance);
+            timings.record(LaunchTimings.SETUP_DIRECTORIES, start);
+            awaitInstall(install, cancelled, spec);
+            timings.addAll(installTimings);
+            startMongodProcesses(spec, layout, template, instance, timings);
             
             instance.setStatus(ClusterInstance.Status.READY);
-            instance.setConnectionString(generateConnectionString(spec));
+            instance.setConnectionString(generateConnectionString(spec, layout));
+            timings.finish();
+            instance.putMetadata(LaunchTimings.METADATA_KEY, timings.toMap());
             
-            logger.info("Local cluster {} launched successfully", spec.getName());
+            logger.info("Local cluster {} launched successfully in {} ms", spec.getName(),
+                timings.toMap().get(LaunchTimings.TOTAL));
+            AsyncSupport.notifyStatus(listener, instance);
             return instance;
             
         } catch (Exception e) {
             instance.setStatus(ClusterInstance.Status.ERROR);
+            logger.debug("Phase timings of the failed launch of {}: {}", spec.getName(), timings);
+            // Members are only recorded once every process is up, e.g. when cancelled at the last phase
+            supervisor.stopAll(instance.getMembers());
+            if (portsReserved) {
+                ports.release(instance.getId(), spec.getPort(), spec.getPortCount());
+            }
+            if (!install.isDone()) {
+                logger.info("Installing MongoDB {} continues in the background", spec.getMongoVersion());
+                install.whenComplete((result, error) -> {
+                    if (error != null) {
+                        logger.debug("Background install of MongoDB {} failed: {}", spec.getMongoVersion(),
+                            error.getMessage());
+                    }
+                });
+            }
+            AsyncSupport.notifyStatus(listener, instance);
             throw new ClusterLaunchException("Failed to launch local cluster: " + spec.getName(), e);
         }
     }
     
+    // Resolves the spec's version and installs the binaries it needs on the launcher's pool
+    @Override
+    public CompletableFuture<Void> prefetch(LocalClusterSpec spec) {
+        String key = spec.getMongoVersion() + "/" + spec.getTopology();
+        CompletableFuture<Void> prefetch = new CompletableFuture<>();
+        CompletableFuture<Void> running = prefetches.putIfAbsent(key, prefetch);
+        if (running != null) {
+            return running;
+        }
+        
+        // Out of the map before it completes, so a prefetch after that, e.g. once the version
+        // has been removed, installs it again
+        CompletableFuture.runAsync(() -> {
+            try {
+                ensureVersionInstalled(withResolvedVersion(spec), new LaunchTimings());
+            } catch (ClusterLaunchException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).whenComplete((result, error) -> {
+            prefetches.remove(key, prefetch);
+            if (error != null) {
+                prefetch.completeExceptionally(error);
+            } else {
+                prefetch.complete(null);
+            }
+        });
+        return prefetch;
+    }
+    
     @Override
     public void stop(ClusterInstance instance) throws ClusterLaunchException {
         logger.info("Stopping local cluster: {}", instance.getName());
-        // TODO: Stop mongod processes
+        instance.setStatus(ClusterInstance.Status.STOPPING);
+        
+        List<ClusterMember> survivors = supervisor.stopAll(instance.getMembers());
+        if (!survivors.isEmpty()) {
+            instance.setStatus(ClusterInstance.Status.ERROR);
+            throw new ClusterLaunchException("Failed to stop " + survivors.size() + " process(es) of cluster "
+                + instance.getName() + ": " + survivors);
+        }
+        
         instance.setStatus(ClusterInstance.Status.STOPPED);
     }
     
@@ -65,14 +242,42 @@ public class LocalClusterLauncher implements ClusterLauncher<LocalClusterSpec> {
     public void destroy(ClusterInstance instance) throws ClusterLaunchException {
         logger.info("Destroying local cluster: {}", instance.getName());
         stop(instance);
-        // TODO: Clean up data directories
+        
+        try {
+            for (ClusterMember member : instance.getMembers()) {
+                if (member.getDbPath() != null) {
+                    deleteRecursively(Paths.get(member.getDbPath()));
+                } else if (member.getLogPath() != null && !hasSeparateLogPath(instance)) {
+                    Files.deleteIfExists(Paths.get(member.getLogPath()));
+                }
+            }
+            deleteIfEmpty(instance);
+        } catch (IOException e) {
+            throw new ClusterLaunchException("Failed to remove data directories of cluster " + instance.getName(), e);
+        }
+        
+        if (instance.getSpec() instanceof LocalClusterSpec) {
+            LocalClusterSpec spec = (LocalClusterSpec) instance.getSpec();
+            ports.release(instance.getId(), spec.getPort(), spec.getPortCount());
+        }
         instance.setStatus(ClusterInstance.Status.DESTROYED);
     }
     
     @Override
     public ClusterInstance.Status getStatus(ClusterInstance instance) throws ClusterLaunchException {
-        // TODO: Check if mongod processes are running
-        return instance.getStatus();
+        ClusterInstance.Status recorded = instance.getStatus();
+        if (instance.getMembers().isEmpty()
+                || recorded == ClusterInstance.Status.CREATING
+                || recorded == ClusterInstance.Status.STOPPING
+                || recorded == ClusterInstance.Status.DESTROYED) {
+            return recorded;
+        }
+        
+        ClusterInstance.Status observed = supervisor.status(instance);
+        if (observed != recorded) {
+            instance.setStatus(observed);
+        }
+        return observed;
     }
     
     @Override
@@ -85,83 +290,367 @@ public class LocalClusterLauncher implements ClusterLauncher<LocalClusterSpec> {
     }
     
     private void setupDirectories(LocalClusterSpec spec) throws IOException {
-        if (spec.getDataPath() != null) {
-            Path dataPath = Paths.get(spec.getDataPath());
-            Files.createDirectories(dataPath);
+        Path dataPath = resolveDataPath(spec);
+        Files.createDirectories(dataPath);
+        
+        if (spec.getStorage() == LocalClusterSpec.StorageProfile.MEMORY) {
+            if (!dataPath.startsWith(SHM_ROOT)) {
+                logger.warn("No tmpfs at {}, memory storage for {} falls back to {}", SHM_ROOT, spec.getName(), dataPath);
+            }
+            long usable = Files.getFileStore(dataPath).getUsableSpace();
+            if (usable < spec.getPortCount() * MEMORY_BYTES_PER_MEMBER) {
+                logger.warn("Only {} MB free in {} for the {} process(es) of {}", usable / (1024 * 1024), dataPath,
+                    spec.getPortCount(), spec.getName());
+            }
         }
         
         if (spec.getLogPath() != null) {
-            Path logPath = Paths.get(spec.getLogPath()).getParent();
-            if (logPath != null) {
-                Files.createDirectories(logPath);
+            Files.createDirectories(Paths.get(spec.getLogPath()));
+        }
+    }
+    
+    // A port of 0 takes the first free block. An explicit port is reserved as given, so a
+    // concurrent launch on the same ports fails here instead of half way through startup.
+    private void reservePorts(LocalClusterSpec spec, String owner) throws ClusterLaunchException {
+        if (spec.getPort() <= 0) {
+            spec.setPort(ports.allocate(owner, spec.getPortCount()));
+            logger.info("Allocated ports {}-{} for {}", spec.getPort(), spec.getPort() + spec.getPortCount() - 1,
+                spec.getName());
+        } else {
+            ports.reserve(owner, spec.getPort(), spec.getPortCount());
+        }
+    }
+    
+    private DataTemplate resolveTemplate(LocalClusterSpec spec) throws ClusterLaunchException {
+        if (spec.getTemplate() == null) {
+            return null;
+        }
+        if (spec.getTopology() == LocalClusterSpec.LocalTopology.SHARDED) {
+            throw new ClusterLaunchException("Data templates are not supported for sharded clusters: " + spec.getName());
+        }
+        
+        DataTemplate template;
+        try {
+            template = templates.find(spec.getTemplate())
+                .orElseThrow(() -> new ClusterLaunchException("Template not found: " + spec.getTemplate()));
+        } catch (IOException e) {
+            throw new ClusterLaunchException("Failed to read template " + spec.getTemplate(), e);
+        }
+        
+        if (!template.getMongoVersion().equals(spec.getMongoVersion())) {
+            logger.warn("Template {} was captured with MongoDB {}, launching {}",
+                template.getName(), template.getMongoVersion(), spec.getMongoVersion());
+        }
+        return template;
+    }
+    
+    private void startMongodProcesses(LocalClusterSpec spec, ClusterLayout layout, DataTemplate template,
+                                      ClusterInstance instance, LaunchTimings timings)
+            throws IOException, ClusterLaunchException {
+        LaunchedProcesses launched = new LaunchedProcesses(timings);
+        
+        try {
+            switch (spec.getTopology()) {
+                case STANDALONE:
+                    startStandalone(spec, layout, template, launched);
+                    break;
+                case REPLICA_SET:
+                    startReplicaSet(spec, layout, template, launched);
+                    break;
+                case SHARDED:
+                    startShardedCluster(spec, layout, launched);
+                    break;
             }
+        } catch (IOException | ClusterLaunchException | RuntimeException e) {
+            launched.abort();
+            throw e;
         }
+        
+        instance.setMembers(launched.getMembers());
     }
     
-    private void startMongodProcesses(LocalClusterSpec spec, ClusterInstance instance) throws IOException, ClusterLaunchException {
-        switch (spec.getTopology()) {
-            case STANDALONE:
-                startStandalone(spec, instance);
-                break;
-            case REPLICA_SET:
-                startReplicaSet(spec, instance);
-                break;
-            case SHARDED:
-                startShardedCluster(spec, instance);
-                break;
+    private void startStandalone(LocalClusterSpec spec, ClusterLayout layout, DataTemplate template,
+                                 LaunchedProcesses launched) throws IOException, ClusterLaunchException {
+        ClusterLayout.ReplicaSetLayout standalone = layout.getReplicaSets().get(0);
+        startMembers(spec, standalone, ClusterMember.Role.STANDALONE, List.of(), template, launched);
+        logger.info("Started standalone mongod on port {}", standalone.getPorts().get(0));
+    }
+    
+    private void startReplicaSet(LocalClusterSpec spec, ClusterLayout layout, DataTemplate template,
+                                 LaunchedProcesses launched) throws ClusterLaunchException {
+        ClusterLayout.ReplicaSetLayout replicaSet = layout.getReplicaSets().get(0);
+        awaitAll(List.of(startReplicaSetAsync(spec, replicaSet, ClusterMember.Role.REPLICA_SET_MEMBER, template, launched)));
+    }
+    
+    private void startShardedCluster(LocalClusterSpec spec, ClusterLayout layout, LaunchedProcesses launched)
+            throws ClusterLaunchException {
+        validateShardedSpec(spec);
+        
+        // The config servers and every shard come up at the same time
+        CompletableFuture<Void> configTier = startReplicaSetAsync(
+            spec, layout.getConfigServers(), ClusterMember.Role.CONFIG_SERVER, null, launched);
+        
+        List<CompletableFuture<Void>> tiers = new ArrayList<>();
+        tiers.add(configTier);
+        for (ClusterLayout.ReplicaSetLayout shard : layout.getReplicaSets()) {
+            tiers.add(startReplicaSetAsync(spec, shard, ClusterMember.Role.SHARD_MEMBER, null, launched));
+        }
+        
+        // mongos only needs a config primary, so it starts while the shards are still electing
+        tiers.add(configTier.thenComposeAsync(v -> startMongosAsync(spec, layout, launched), executor));
+        
+        awaitAll(tiers);
+        
+        long start = launched.timings.start();
+        addShards(layout);
+        launched.timings.record(LaunchTimings.ADD_SHARDS, start);
+    }
+    
+    private void validateShardedSpec(LocalClusterSpec spec) throws ClusterLaunchException {
+        if (spec.getShardCount() < 1 || spec.getReplicaSetSize() < 1
+                || spec.getConfigServerCount() < 1 || spec.getMongosCount() < 1) {
+            throw new ClusterLaunchException("Sharded clusters need at least one shard, shard member, "
+                + "config server and mongos: " + spec.getName());
         }
     }
     
-    private void startStandalone(LocalClusterSpec spec, ClusterInstance instance) throws IOException, ClusterLaunchException {
-        List<String> command = buildMongodCommand(spec, spec.getPort());
+    private CompletableFuture<Void> startReplicaSetAsync(LocalClusterSpec spec, ClusterLayout.ReplicaSetLayout replicaSet,
+                                                         ClusterMember.Role role, DataTemplate template,
+                                                         LaunchedProcesses launched) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                List<String> args = new ArrayList<>();
+                if (role == ClusterMember.Role.CONFIG_SERVER) {
+                    args.add("--configsvr");
+                } else if (role == ClusterMember.Role.SHARD_MEMBER) {
+                    args.add("--shardsvr");
+                }
+                args.add("--replSet");
+                args.add(replicaSet.getName());
+                startMembers(spec, replicaSet, role, args, template, launched);
+                
+                ReplicaSetInitializer initializer = new ReplicaSetInitializer(replicaSet.getName(), replicaSet.getPorts(),
+                    role == ClusterMember.Role.CONFIG_SERVER, spec.isFastElection());
+                long start = launched.timings.start();
+                if (template != null && template.getReplicaSetName() != null) {
+                    initializer.reconfigureClonedSet();
+                } else {
+                    initializer.initiate();
+                }
+                launched.timings.record(LaunchTimings.phase(LaunchTimings.INITIATE, replicaSet.getName()), start);
+                
+                start = launched.timings.start();
+                initializer.awaitPrimary(ELECTION_TIMEOUT_MS);
+                launched.timings.record(LaunchTimings.phase(LaunchTimings.PRIMARY, replicaSet.getName()), start);
+            } catch (IOException | ClusterLaunchException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+    
+    private CompletableFuture<Void> startMongosAsync(LocalClusterSpec spec, ClusterLayout layout, LaunchedProcesses launched) {
+        List<CompletableFuture<Void>> routers = new ArrayList<>();
+        long spawnStart = launched.timings.start();
         
-        ProcessBuilder pb = new ProcessBuilder(command);
-        Process process = pb.start();
+        try {
+            for (int port : layout.getMongosPorts()) {
+                List<String> command = buildMongosCommand(spec, port, layout.getConfigServers());
+                Path logFile = mongosLogFile(spec, port);
+                ReadinessProbe probe = new ReadinessProbe(port, logFile);
+                long start = launched.timings.start();
+                Process process = spawn(command);
+                ClusterMember member = ProcessSupervisor.describe(process, ClusterMember.Role.MONGOS, port);
+                member.setLogPath(logFile.toString());
+                launched.add(process, member);
+                routers.add(CompletableFuture.runAsync(() -> awaitReady(probe, process, port, start, launched.timings), executor));
+                logger.info("Started mongos on port {} (pid {})", port, process.pid());
+            }
+            launched.timings.record(LaunchTimings.phase(LaunchTimings.SPAWN, "mongos"), spawnStart);
+        } catch (IOException | ClusterLaunchException e) {
+            return CompletableFuture.failedFuture(e);
+        }
         
-        // TODO: Store process reference for later management
-        logger.info("Started standalone mongod on port {}", spec.getPort());
+        return CompletableFuture.allOf(routers.toArray(new CompletableFuture<?>[0]));
     }
     
-    private void startReplicaSet(LocalClusterSpec spec, ClusterInstance instance) throws IOException, ClusterLaunchException {
-        // TODO: Implement replica set launch logic similar to mlaunch
-        for (int i = 0; i < spec.getReplicaSetSize(); i++) {
-            int port = spec.getPort() + i;
-            List<String> command = buildMongodCommand(spec, port);
-            command.add("--replSet");
-            command.add(spec.getName());
-            
-            ProcessBuilder pb = new ProcessBuilder(command);
-            Process process = pb.start();
+    // Every shard's addShard is sent through the same router at once; the config server still
+    // applies them one after another, so this only saves the round trips
+    private void addShards(ClusterLayout layout) throws ClusterLaunchException {
+        int routerPort = layout.getMongosPorts().get(0);
+        
+        try (MongoClient client = MongoCommands.connect(routerPort, ADD_SHARD_TIMEOUT_MS)) {
+            List<CompletableFuture<Void>> requests = new ArrayList<>();
+            for (ClusterLayout.ReplicaSetLayout shard : layout.getReplicaSets()) {
+                requests.add(CompletableFuture.runAsync(() -> {
+                    MongoCommands.runAdminCommand(client, new Document("addShard", shard.getConnectionTarget())
+                        .append("name", shard.getName()));
+                    logger.info("Added shard {}", shard.getName());
+                }, executor));
+            }
+            awaitAll(requests);
+        }
+    }
+    
+    private void startMembers(LocalClusterSpec spec, ClusterLayout.ReplicaSetLayout replicaSet, ClusterMember.Role role,
+                              List<String> extraArgs, DataTemplate template, LaunchedProcesses launched)
+            throws IOException, ClusterLaunchException {
+        if (template != null) {
+            long start = launched.timings.start();
+            seedFromTemplate(spec, replicaSet, template);
+            launched.timings.record(LaunchTimings.phase(LaunchTimings.SEED_TEMPLATE, replicaSet.getName()), start);
+        }
+        
+        List<CompletableFuture<Void>> readiness = new ArrayList<>();
+        long spawnStart = launched.timings.start();
+        
+        // Spawn every member before waiting on any of them so their startup overlaps
+        for (int port : replicaSet.getPorts()) {
+            Path dbPath = memberDbPath(spec, port);
+            Path logFile = memberLogFile(spec, port);
+            Files.createDirectories(dbPath);
+            List<String> command = buildMongodCommand(spec, port, role);
+            command.addAll(extraArgs);
             
-            logger.info("Started replica set member {} on port {}", i, port);
+            ReadinessProbe probe = new ReadinessProbe(port, logFile);
+            long start = launched.timings.start();
+            Process process = spawn(command);
+            ClusterMember member = ProcessSupervisor.describe(process, role, port);
+            member.setReplicaSetName(replicaSet.getName());
+            member.setDbPath(dbPath.toString());
+            member.setLogPath(logFile.toString());
+            launched.add(process, member);
+            readiness.add(CompletableFuture.runAsync(() -> awaitReady(probe, process, port, start, launched.timings), executor));
+            logger.info("Started mongod on port {} (pid {})", port, process.pid());
         }
+        launched.timings.record(LaunchTimings.phase(LaunchTimings.SPAWN, replicaSet.getName()), spawnStart);
+        
+        awaitAll(readiness);
+    }
+    
+    // Data captured from a replica set seeds every member. Standalone data seeds only the first:
+    // replSetInitiate requires the other members to be empty, and they initial sync from it.
+    private void seedFromTemplate(LocalClusterSpec spec, ClusterLayout.ReplicaSetLayout replicaSet, DataTemplate template)
+            throws ClusterLaunchException {
+        List<Integer> ports = template.getReplicaSetName() != null
+            ? replicaSet.getPorts() : replicaSet.getPorts().subList(0, 1);
         
-        // TODO: Initialize replica set
+        List<CompletableFuture<Void>> clones = new ArrayList<>();
+        for (int port : ports) {
+            clones.add(CompletableFuture.runAsync(() -> {
+                try {
+                    templates.cloneInto(template, memberDbPath(spec, port));
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        awaitAll(clones);
+        logger.info("Seeded {} member(s) from template {}", ports.size(), template.getName());
+    }
+    
+    private Process spawn(List<String> command) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        return pb.start();
+    }
+    
+    // The readiness time of a member counts from just before its process was spawned
+    private static void awaitReady(ReadinessProbe probe, Process process, int port, long spawnStart, LaunchTimings timings) {
+        try {
+            probe.awaitReady(process, STARTUP_TIMEOUT_MS);
+            timings.record(LaunchTimings.phase(LaunchTimings.READY, port), spawnStart);
+        } catch (ClusterLaunchException e) {
+            throw new CompletionException(e);
+        }
     }
     
-    private void startShardedCluster(LocalClusterSpec spec, ClusterInstance instance) throws IOException {
-        // TODO: Implement sharded cluster launch logic
-        // This would involve config servers, mongos routers, and shard replica sets
-        throw new UnsupportedOperationException("Sharded clusters not yet implemented");
+    // Waits for the install, but gives up as soon as the launch is cancelled
+    private static void awaitInstall(CompletableFuture<Void> install, BooleanSupplier cancelled, LocalClusterSpec spec)
+            throws ClusterLaunchException, InterruptedException {
+        while (!install.isDone()) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Launch of " + spec.getName() + " was cancelled");
+            }
+            try {
+                install.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // Checked again above, or reported by awaitAll
+            }
+        }
+        awaitAll(List.of(install));
     }
     
-    private void ensureVersionInstalled(LocalClusterSpec spec) throws ClusterLaunchException {
+    // Waits for every future, but fails as soon as any one of them does
+    private static void awaitAll(List<? extends CompletableFuture<?>> futures) throws ClusterLaunchException {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        futures.forEach(f -> f.whenComplete((result, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+        
         try {
+            CompletableFuture.anyOf(all, firstFailure).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ClusterLaunchException) {
+                throw (ClusterLaunchException) cause;
+            }
+            throw new ClusterLaunchException(cause.getMessage(), cause);
+        }
+    }
+    
+    // The spec with its version constraint, e.g. "7.0" or ">=6.0 <7.1 !rc", replaced by the version
+    // it resolves to, so that the launch and the recorded cluster all use that one version
+    // Always a copy, since launching assigns the allocated ports to the spec and the caller may
+    // launch its own spec again
+    private LocalClusterSpec withResolvedVersion(LocalClusterSpec spec) throws ClusterLaunchException {
+        MongoVersion version;
+        try {
+            version = versionManager.resolveVersion(spec.getMongoVersion());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ClusterLaunchException("Failed to resolve MongoDB version: " + spec.getMongoVersion(), e);
+        }
+        LocalClusterSpec resolved = new LocalClusterSpec(spec);
+        if (!version.getVersion().equals(spec.getMongoVersion())) {
+            logger.info("Resolved MongoDB version {} to {}", spec.getMongoVersion(), version);
+            resolved.setMongoVersion(version.getVersion());
+        }
+        return resolved;
+    }
+    
+    private void ensureVersionInstalled(LocalClusterSpec spec, LaunchTimings timings) throws ClusterLaunchException {
+        try {
+            long start = timings.start();
             MongoVersion version = new MongoVersion(spec.getMongoVersion());
-            if (!versionManager.isVersionInstalled(version)) {
+            Set<String> binaries = spec.getTopology() == LocalClusterSpec.LocalTopology.SHARDED
+                ? Set.of("mongod", "mongos")
+                : Set.of("mongod");
+            boolean installed = versionManager.hasBinaries(version, binaries);
+            timings.record(LaunchTimings.RESOLVE_VERSION, start);
+            
+            if (!installed) {
                 logger.info("MongoDB version {} not found locally, installing...", version);
-                versionManager.installVersion(version);
+                versionManager.installBinaries(version, binaries, timings);
             }
+            versionManager.recordUse(version);
         } catch (Exception e) {
             throw new ClusterLaunchException("Failed to ensure MongoDB version is installed: " + spec.getMongoVersion(), e);
         }
     }
     
-    private List<String> buildMongodCommand(LocalClusterSpec spec, int port) throws ClusterLaunchException {
+    private List<String> buildMongodCommand(LocalClusterSpec spec, int port, ClusterMember.Role role)
+            throws ClusterLaunchException {
         List<String> command = new ArrayList<>();
+        MongoVersion version;
         
         try {
-            MongoVersion version = new MongoVersion(spec.getMongoVersion());
+            version = new MongoVersion(spec.getMongoVersion());
             Path mongodPath = versionManager.getMongodPath(version);
             command.add(mongodPath.toString());
         } catch (Exception e) {
@@ -171,14 +660,14 @@ public class LocalClusterLauncher implements ClusterLauncher<LocalClusterSpec> {
         command.add("--port");
         command.add(String.valueOf(port));
         
-        if (spec.getDataPath() != null) {
-            command.add("--dbpath");
-            command.add(spec.getDataPath() + "/" + port);
-        }
+        command.add("--dbpath");
+        command.add(memberDbPath(spec, port).toString());
         
-        if (spec.getLogPath() != null) {
-            command.add("--logpath");
-            command.add(spec.getLogPath() + "/mongod-" + port + ".log");
+        command.add("--logpath");
+        command.add(memberLogFile(spec, port).toString());
+        
+        if (spec.getStorage() == LocalClusterSpec.StorageProfile.MEMORY) {
+            command.addAll(memoryStorageOptions(version, role));
         }
         
         if (spec.isEnableAuth()) {
@@ -190,22 +679,150 @@ public class LocalClusterLauncher implements ClusterLauncher<LocalClusterSpec> {
         return command;
     }
     
-    private String generateConnectionString(LocalClusterSpec spec) {
+    // The data goes away with the cluster: keep the cache and oplog small, skip diagnostic data,
+    // and drop the journal where the server still allows it (standalone, before 6.1)
+    private static List<String> memoryStorageOptions(MongoVersion version, ClusterMember.Role role) {
+        List<String> options = new ArrayList<>();
+        options.add("--wiredTigerCacheSizeGB");
+        options.add(MEMORY_CACHE_SIZE_GB);
+        options.add("--setParameter");
+        options.add("diagnosticDataCollectionEnabled=false");
+        
+        if (role == ClusterMember.Role.STANDALONE) {
+            if (version.compareTo(NOJOURNAL_REMOVED_IN) < 0) {
+                options.add("--nojournal");
+            }
+        } else {
+            options.add("--oplogSize");
+            options.add(String.valueOf(MEMORY_OPLOG_SIZE_MB));
+        }
+        return options;
+    }
+    
+    private List<String> buildMongosCommand(LocalClusterSpec spec, int port, ClusterLayout.ReplicaSetLayout configServers)
+            throws ClusterLaunchException {
+        List<String> command = new ArrayList<>();
+        
+        try {
+            MongoVersion version = new MongoVersion(spec.getMongoVersion());
+            command.add(versionManager.getMongosPath(version).toString());
+        } catch (Exception e) {
+            throw new ClusterLaunchException("Failed to locate mongos binary for version: " + spec.getMongoVersion(), e);
+        }
+        
+        command.add("--port");
+        command.add(String.valueOf(port));
+        command.add("--configdb");
+        command.add(configServers.getConnectionTarget());
+        command.add("--logpath");
+        command.add(mongosLogFile(spec, port).toString());
+        
+        return command;
+    }
+    
+    private Path resolveDataPath(LocalClusterSpec spec) {
+        if (spec.getStorage() == LocalClusterSpec.StorageProfile.MEMORY) {
+            return memoryRoot().resolve(spec.getName());
+        }
+        if (spec.getDataPath() != null) {
+            return Paths.get(spec.getDataPath());
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "mongo-launcher", spec.getName());
+    }
+    
+    // /dev/shm is a tmpfs on mainstream Linux distributions. Other platforms have no unprivileged
+    // equivalent, so there the data goes to the temp directory.
+    private static Path memoryRoot() {
+        if (Files.isDirectory(SHM_ROOT) && Files.isWritable(SHM_ROOT)) {
+            return SHM_ROOT.resolve("mongo-launcher");
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "mongo-launcher-memory");
+    }
+    
+    private Path memberDbPath(LocalClusterSpec spec, int port) {
+        return resolveDataPath(spec).resolve(String.valueOf(port));
+    }
+    
+    private Path memberLogFile(LocalClusterSpec spec, int port) {
+        if (spec.getLogPath() != null) {
+            return Paths.get(spec.getLogPath(), "mongod-" + port + ".log");
+        }
+        return memberDbPath(spec, port).resolve("mongod.log");
+    }
+    
+    private Path mongosLogFile(LocalClusterSpec spec, int port) {
+        Path logDir = spec.getLogPath() != null ? Paths.get(spec.getLogPath()) : resolveDataPath(spec);
+        return logDir.resolve("mongos-" + port + ".log");
+    }
+    
+    private String generateConnectionString(LocalClusterSpec spec, ClusterLayout layout) {
         switch (spec.getTopology()) {
-            case STANDALONE:
-                return "mongodb://localhost:" + spec.getPort();
             case REPLICA_SET:
-                StringBuilder sb = new StringBuilder("mongodb://");
-                for (int i = 0; i < spec.getReplicaSetSize(); i++) {
-                    if (i > 0) sb.append(",");
-                    sb.append("localhost:").append(spec.getPort() + i);
-                }
-                sb.append("/?replicaSet=").append(spec.getName());
-                return sb.toString();
+                ClusterLayout.ReplicaSetLayout replicaSet = layout.getReplicaSets().get(0);
+                return "mongodb://" + replicaSet.getSeedList() + "/?replicaSet=" + replicaSet.getName();
             case SHARDED:
-                return "mongodb://localhost:" + (spec.getPort() + 1000); // mongos port
+                return "mongodb://" + layout.getMongosPorts().stream()
+                    .map(MongoCommands::hostAndPort)
+                    .collect(Collectors.joining(","));
             default:
                 return "mongodb://localhost:" + spec.getPort();
         }
     }
+    
+    private boolean hasSeparateLogPath(ClusterInstance instance) {
+        return instance.getSpec() instanceof LocalClusterSpec
+            && ((LocalClusterSpec) instance.getSpec()).getLogPath() != null;
+    }
+    
+    // The data root may be shared with other clusters, so it is only removed once empty
+    private void deleteIfEmpty(ClusterInstance instance) throws IOException {
+        if (instance.getSpec() instanceof LocalClusterSpec) {
+            try {
+                Files.deleteIfExists(resolveDataPath((LocalClusterSpec) instance.getSpec()));
+            } catch (DirectoryNotEmptyException e) {
+                logger.debug("Keeping non-empty data directory {}", e.getFile());
+            }
+        }
+    }
+    
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+    
+    // Every process spawned for one launch, so a failure anywhere can tear all of them down,
+    // along with the launch's phase timings
+    private static class LaunchedProcesses {
+        private final List<Process> processes = new ArrayList<>();
+        private final List<ClusterMember> members = new ArrayList<>();
+        private final LaunchTimings timings;
+        private boolean aborted;
+        
+        LaunchedProcesses(LaunchTimings timings) {
+            this.timings = timings;
+        }
+        
+        synchronized void add(Process process, ClusterMember member) {
+            processes.add(process);
+            members.add(member);
+            if (aborted) {
+                process.destroyForcibly();
+            }
+        }
+        
+        synchronized void abort() {
+            aborted = true;
+            processes.forEach(Process::destroyForcibly);
+        }
+        
+        synchronized List<ClusterMember> getMembers() {
+            return new ArrayList<>(members);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+
+import java.util.concurrent.TimeUnit;
+
+final class MongoCommands {
+    
+    static final String LOCALHOST = "localhost";
+    
+    private MongoCommands() {}
+    
+    static MongoClient connect(int port, long timeoutMillis) {
+        MongoClientSettings settings = MongoClientSettings.builder()
+            .applyConnectionString(new ConnectionString(
+                "mongodb://" + LOCALHOST + ":" + port + "/?directConnection=true"))
+            .applyToClusterSettings(b -> b.serverSelectionTimeout(timeoutMillis, TimeUnit.MILLISECONDS))
+            .applyToSocketSettings(b -> b
+                .connectTimeout((int) timeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout((int) Math.max(timeoutMillis, 10_000), TimeUnit.MILLISECONDS))
+            .build();
+        return MongoClients.create(settings);
+    }
+    
+    static Document hello(MongoClient client) {
+        return runAdminCommand(client, new Document("hello", 1));
+    }
+    
+    static Document runAdminCommand(MongoClient client, Document command) {
+        return client.getDatabase("admin").runCommand(command);
+    }
+    
+    static String hostAndPort(int port) {
+        return LOCALHOST + ":" + port;
+    }
+}
\ No newline at end of file
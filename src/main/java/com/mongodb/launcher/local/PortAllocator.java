@@ -0,0 +1,207 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+// Hands out blocks of consecutive ports to local clusters so that concurrent launches, from this
+// JVM or any other on the host, never pick the same ports. Each reserved port has a file in
+// <config>/ports naming the owning cluster and the process that reserved it:
+//
+//   <pid> <process start millis> <cluster id>
+//
+// A reservation holds while that process is alive or while something is listening on the port,
+// which covers a cluster launched by a CLI invocation that has since exited. Ports that are free
+// but not reserved are also checked with a bind, so services outside the launcher are skipped.
+public class PortAllocator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PortAllocator.class);
+    
+    private static final String PORTS_DIR = "ports";
+    private static final String LOCK_FILE = ".lock";
+    
+    public static final int DEFAULT_RANGE_START = 27100;
+    public static final int DEFAULT_RANGE_END = 28999;
+    
+    private final Path portsDir;
+    private final int rangeStart;
+    private final int rangeEnd;
+    
+    public PortAllocator() {
+        this(new ConfigManager().getConfigDirectory().resolve(PORTS_DIR), DEFAULT_RANGE_START, DEFAULT_RANGE_END);
+    }
+    
+    public PortAllocator(Path portsDir, int rangeStart, int rangeEnd) {
+        if (rangeStart < 1 || rangeEnd > 65535 || rangeEnd < rangeStart) {
+            throw new IllegalArgumentException("Invalid port range: " + rangeStart + "-" + rangeEnd);
+        }
+        this.portsDir = portsDir;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+    
+    // Reserves the first free block of count ports in the range and returns its first port
+    public int allocate(String owner, int count) throws ClusterLaunchException {
+        return withLock(() -> {
+            int base = rangeStart;
+            while (base + count - 1 <= rangeEnd) {
+                int conflict = firstUnavailable(base, count);
+                if (conflict < 0) {
+                    claim(owner, base, count);
+                    logger.debug("Allocated ports {}-{} to {}", base, base + count - 1, owner);
+                    return base;
+                }
+                base = conflict + 1;
+            }
+            throw new ClusterLaunchException("No block of " + count + " free ports between "
+                + rangeStart + " and " + rangeEnd);
+        });
+    }
+    
+    // Reserves exactly basePort..basePort+count-1, failing if any of them is taken
+    public void reserve(String owner, int basePort, int count) throws ClusterLaunchException {
+        withLock(() -> {
+            for (int port = basePort; port < basePort + count; port++) {
+                Optional<Reservation> reservation = readReservation(port);
+                if (reservation.isPresent() && !reservation.get().owner.equals(owner) && isHeld(reservation.get(), port)) {
+                    throw new ClusterLaunchException("Port " + port + " is reserved by cluster " + reservation.get().owner);
+                }
+                if (reservation.isEmpty() && !isBindable(port)) {
+                    throw new ClusterLaunchException("Port " + port + " is already in use by another process");
+                }
+            }
+            claim(owner, basePort, count);
+            return null;
+        });
+    }
+    
+    // Drops the owner's reservations in the block; ports reserved by someone else are left alone
+    public void release(String owner, int basePort, int count) {
+        try {
+            withLock(() -> {
+                for (int port = basePort; port < basePort + count; port++) {
+                    Optional<Reservation> reservation = readReservation(port);
+                    if (reservation.isPresent() && reservation.get().owner.equals(owner)) {
+                        Files.deleteIfExists(portFile(port));
+                    }
+                }
+                return null;
+            });
+        } catch (ClusterLaunchException e) {
+            logger.warn("Failed to release ports {}-{} of {}: {}", basePort, basePort + count - 1, owner, e.getMessage());
+        }
+    }
+    
+    // Returns the first port of the block that cannot be used, or -1 if all of them can
+    private int firstUnavailable(int basePort, int count) throws IOException {
+        for (int port = basePort; port < basePort + count; port++) {
+            Optional<Reservation> reservation = readReservation(port);
+            if (reservation.isPresent() ? isHeld(reservation.get(), port) : !isBindable(port)) {
+                return port;
+            }
+        }
+        return -1;
+    }
+    
+    private void claim(String owner, int basePort, int count) throws IOException {
+        ProcessHandle self = ProcessHandle.current();
+        long start = self.info().startInstant().map(i -> i.toEpochMilli()).orElse(0L);
+        String content = self.pid() + " " + start + " " + owner + "\n";
+        for (int port = basePort; port < basePort + count; port++) {
+            Files.write(portFile(port), content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    private boolean isHeld(Reservation reservation, int port) {
+        return isAlive(reservation) || !isBindable(port);
+    }
+    
+    private static boolean isAlive(Reservation reservation) {
+        return ProcessHandle.of(reservation.pid)
+            .filter(ProcessHandle::isAlive)
+            .filter(handle -> reservation.startMillis == 0 || handle.info().startInstant()
+                .map(i -> Math.abs(i.toEpochMilli() - reservation.startMillis) <= 1_000)
+                .orElse(true))
+            .isPresent();
+    }
+    
+    private static boolean isBindable(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private Optional<Reservation> readReservation(int port) throws IOException {
+        try {
+            String[] fields = Files.readString(portFile(port), StandardCharsets.UTF_8).trim().split(" ", 3);
+            if (fields.length < 3) {
+                return Optional.empty();
+            }
+            return Optional.of(new Reservation(fields[2], Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring malformed port reservation for {}", port);
+            return Optional.empty();
+        }
+    }
+    
+    private Path portFile(int port) {
+        return portsDir.resolve(String.valueOf(port));
+    }
+    
+    // The file lock serializes processes; it is held per JVM, so threads also need the monitor
+    private <T> T withLock(LockedOperation<T> operation) throws ClusterLaunchException {
+        synchronized (PortAllocator.class) {
+            try {
+                Files.createDirectories(portsDir);
+                try (FileChannel channel = FileChannel.open(portsDir.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        return operation.run();
+                    } finally {
+                        lock.release();
+                    }
+                }
+            } catch (IOException e) {
+                throw new ClusterLaunchException("Failed to update port reservations in " + portsDir, e);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface LockedOperation<T> {
+        T run() throws IOException, ClusterLaunchException;
+    }
+    
+    private static class Reservation {
+        private final String owner;
+        private final long pid;
+        private final long startMillis;
+        
+        Reservation(String owner, long pid, long startMillis) {
+            this.owner = owner;
+            this.pid = pid;
+            this.startMillis = startMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.MongoSocketException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterMember;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Tracks the mongod/mongos processes of local clusters by pid. Status checks are plain
+// ProcessHandle lookups, so they work from any JVM and never touch the network.
+class ProcessSupervisor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProcessSupervisor.class);
+    
+    private static final long SHUTDOWN_COMMAND_TIMEOUT_MS = 2_000;
+    private static final long SHUTDOWN_GRACE_MS = 15_000;
+    private static final long TERMINATE_GRACE_MS = 10_000;
+    private static final long KILL_GRACE_MS = 5_000;
+    
+    // Allowed difference between the recorded and the observed process start time
+    private static final long START_TIME_TOLERANCE_MS = 1_000;
+    
+    private final Executor executor;
+    
+    ProcessSupervisor(Executor executor) {
+        this.executor = executor;
+    }
+    
+    static ClusterMember describe(Process process, ClusterMember.Role role, int port) {
+        ClusterMember member = new ClusterMember(role, MongoCommands.LOCALHOST, port, process.pid());
+        process.info().startInstant().ifPresent(start -> member.setStartTimeMillis(start.toEpochMilli()));
+        return member;
+    }
+    
+    Optional<ProcessHandle> findProcess(ClusterMember member) {
+        return ProcessHandle.of(member.getPid())
+            .filter(ProcessHandle::isAlive)
+            .filter(handle -> isSameProcess(handle, member));
+    }
+    
+    boolean isRunning(ClusterMember member) {
+        return findProcess(member).isPresent();
+    }
+    
+    ClusterInstance.Status status(ClusterInstance instance) {
+        List<ClusterMember> members = instance.getMembers();
+        long running = members.stream().filter(this::isRunning).count();
+        
+        if (running == members.size()) {
+            return ClusterInstance.Status.READY;
+        }
+        if (running == 0) {
+            return ClusterInstance.Status.STOPPED;
+        }
+        return ClusterInstance.Status.ERROR;
+    }
+    
+    // Shuts every member down at the same time; returns the members that could not be stopped
+    List<ClusterMember> stopAll(List<ClusterMember> members) {
+        List<CompletableFuture<ClusterMember>> stops = new ArrayList<>();
+        for (ClusterMember member : members) {
+            stops.add(CompletableFuture.supplyAsync(() -> stop(member) ? null : member, executor));
+        }
+        
+        List<ClusterMember> survivors = new ArrayList<>();
+        for (CompletableFuture<ClusterMember> stop : stops) {
+            ClusterMember survivor = stop.join();
+            if (survivor != null) {
+                survivors.add(survivor);
+            }
+        }
+        return survivors;
+    }
+    
+    // shutdown command first, then SIGTERM, then SIGKILL, each with its own deadline
+    boolean stop(ClusterMember member) {
+        Optional<ProcessHandle> found = findProcess(member);
+        if (found.isEmpty()) {
+            return true;
+        }
+        ProcessHandle handle = found.get();
+        
+        if (sendShutdownCommand(member) && awaitExit(handle, SHUTDOWN_GRACE_MS)) {
+            logger.info("Stopped {}", member);
+            return true;
+        }
+        
+        logger.warn("{} did not shut down cleanly, sending SIGTERM", member);
+        handle.destroy();
+        if (awaitExit(handle, TERMINATE_GRACE_MS)) {
+            return true;
+        }
+        
+        logger.warn("{} did not exit within {} ms of SIGTERM, sending SIGKILL", member, TERMINATE_GRACE_MS);
+        handle.destroyForcibly();
+        return awaitExit(handle, KILL_GRACE_MS);
+    }
+    
+    // Returns whether the server accepted the command, in which case it is worth waiting for
+    private boolean sendShutdownCommand(ClusterMember member) {
+        try (MongoClient client = MongoCommands.connect(member.getPort(), SHUTDOWN_COMMAND_TIMEOUT_MS)) {
+            // force lets a primary shut down without waiting for a secondary to catch up
+            MongoCommands.runAdminCommand(client, new Document("shutdown", 1).append("force", true));
+            return true;
+        } catch (MongoSocketException e) {
+            // The server drops the connection while shutting down
+            return true;
+        } catch (Exception e) {
+            logger.debug("shutdown command on port {} failed: {}", member.getPort(), e.getMessage());
+            return false;
+        }
+    }
+    
+    private static boolean awaitExit(ProcessHandle handle, long timeoutMillis) {
+        try {
+            handle.onExit().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return !handle.isAlive();
+        } catch (Exception e) {
+            return !handle.isAlive();
+        }
+    }
+    
+    private static boolean isSameProcess(ProcessHandle handle, ClusterMember member) {
+        if (member.getStartTimeMillis() == 0) {
+            return true;
+        }
+        Optional<Instant> start = handle.info().startInstant();
+        return start.isEmpty()
+            || Math.abs(start.get().toEpochMilli() - member.getStartTimeMillis()) <= START_TIME_TOLERANCE_MS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.launcher.ClusterLaunchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+class ReadinessProbe {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessProbe.class);
+    
+    static final String READY_MARKER = "Waiting for connections";
+    
+    private static final long LOG_POLL_INTERVAL_MS = 25;
+    private static final long HELLO_GRACE_MS = 1000;
+    private static final long HELLO_INTERVAL_MS = 250;
+    private static final long HELLO_TIMEOUT_MS = 500;
+    
+    private final int port;
+    private final Path logFile;
+    
+    private Object currentFileKey;
+    private long position;
+    private String carry = "";
+    
+    // Created before the process is spawned, so a log left behind by a previous run
+    // (which mongod rotates away on startup) is not mistaken for the new one
+    ReadinessProbe(int port, Path logFile) {
+        this.port = port;
+        this.logFile = logFile;
+        
+        BasicFileAttributes attrs = readAttributes(logFile);
+        this.currentFileKey = attrs != null ? attrs.fileKey() : null;
+        this.position = attrs != null ? attrs.size() : 0;
+    }
+    
+    void awaitReady(Process process, long timeoutMillis) throws ClusterLaunchException {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000L;
+        long nextHello = start + HELLO_GRACE_MS * 1_000_000L;
+        
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new ClusterLaunchException("Process on port " + port + " exited with code "
+                        + process.exitValue() + " before accepting connections (see " + logFile + ")");
+                }
+                
+                if (logShowsReady()) {
+                    logger.debug("Port {} ready after {} ms (log)", port, elapsedMillis(start));
+                    return;
+                }
+                
+                long now = System.nanoTime();
+                if (now >= nextHello) {
+                    if (helloSucceeds()) {
+                        logger.debug("Port {} ready after {} ms (hello)", port, elapsedMillis(start));
+                        return;
+                    }
+                    nextHello = System.nanoTime() + HELLO_INTERVAL_MS * 1_000_000L;
+                }
+                
+                if (System.nanoTime() >= deadline) {
+                    throw new ClusterLaunchException("Timed out after " + timeoutMillis
+                        + " ms waiting for port " + port + " to accept connections (see " + logFile + ")");
+                }
+                
+                Thread.sleep(LOG_POLL_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterLaunchException("Interrupted while waiting for port " + port, e);
+        }
+    }
+    
+    private boolean logShowsReady() {
+        BasicFileAttributes attrs = readAttributes(logFile);
+        if (attrs == null) {
+            return false;
+        }
+        
+        // mongod renames an existing log on startup; start over when a new file appears
+        if (!Objects.equals(attrs.fileKey(), currentFileKey) || attrs.size() < position) {
+            currentFileKey = attrs.fileKey();
+            position = 0;
+            carry = "";
+        }
+        if (attrs.size() == position) {
+            return false;
+        }
+        
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(attrs.size() - position, 1 << 20));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return false;
+            }
+            position += read;
+            
+            // Keep a short tail so a marker split across two reads is still found
+            String chunk = carry + new String(buffer.array(), 0, read, StandardCharsets.UTF_8);
+            carry = chunk.substring(Math.max(0, chunk.length() - READY_MARKER.length()));
+            
+            return chunk.contains(READY_MARKER);
+        } catch (IOException e) {
+            logger.debug("Failed to read {}: {}", logFile, e.getMessage());
+            return false;
+        }
+    }
+    
+    private boolean helloSucceeds() {
+        try (MongoClient client = MongoCommands.connect(port, HELLO_TIMEOUT_MS)) {
+            MongoCommands.hello(client);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.mongodb.launcher.local;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.util.Backoff;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class ReplicaSetInitializer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSetInitializer.class);
+    
+    private static final long COMMAND_TIMEOUT_MS = 10_000;
+    private static final long STEP_UP_WAIT_MS = 10_000;
+    
+    // Returned by replSetInitiate when the set already has a config, e.g. a restarted dbpath
+    private static final int ALREADY_INITIALIZED = 23;
+    
+    // All members share one host, so there is no network latency to allow for
+    private static final int FAST_ELECTION_TIMEOUT_MS = 500;
+    private static final int FAST_HEARTBEAT_INTERVAL_MS = 200;
+    private static final int PREFERRED_PRIMARY_PRIORITY = 2;
+    
+    private final String replSetName;
+    private final List<Integer> ports;
+    private final boolean configServer;
+    private final boolean fastElection;
+    
+    ReplicaSetInitializer(String replSetName, List<Integer> ports, boolean configServer, boolean fastElection) {
+        this.replSetName = replSetName;
+        this.ports = ports;
+        this.configServer = configServer;
+        this.fastElection = fastElection;
+    }
+    
+    Document buildConfig() {
+        List<Document> members = new ArrayList<>();
+        for (int i = 0; i < ports.size(); i++) {
+            Document member = new Document("_id", i).append("host", MongoCommands.hostAndPort(ports.get(i)));
+            if (fastElection) {
+                member.append("priority", i == 0 ? PREFERRED_PRIMARY_PRIORITY : 1);
+            }
+            members.add(member);
+        }
+        
+        Document config = new Document("_id", replSetName);
+        if (configServer) {
+            config.append("configsvr", true);
+        }
+        config.append("members", members);
+        
+        if (fastElection) {
+            config.append("settings", new Document("electionTimeoutMillis", FAST_ELECTION_TIMEOUT_MS)
+                .append("heartbeatIntervalMillis", FAST_HEARTBEAT_INTERVAL_MS)
+                .append("catchUpTimeoutMillis", 0));
+        }
+        return config;
+    }
+    
+    void initiate() throws ClusterLaunchException {
+        Document config = buildConfig();
+        logger.info("Initiating replica set {} with {} members", replSetName, ports.size());
+        
+        try (MongoClient client = MongoCommands.connect(ports.get(0), COMMAND_TIMEOUT_MS)) {
+            try {
+                MongoCommands.runAdminCommand(client, new Document("replSetInitiate", config));
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() != ALREADY_INITIALIZED) {
+                    throw e;
+                }
+                logger.info("Replica set {} is already initialized", replSetName);
+                return;
+            }
+            
+            if (fastElection && ports.size() > 1) {
+                stepUpPreferredPrimary(client);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterLaunchException("Interrupted while initiating " + replSetName, e);
+        } catch (Exception e) {
+            throw new ClusterLaunchException("replSetInitiate failed for " + replSetName, e);
+        }
+    }
+    
+    // A dbpath cloned from a template still holds the source set's config, listing the source
+    // cluster's hosts, so no member finds itself in it. Replace the member list with this set's
+    // hosts, keep the rest (replicaSetId in particular), and force it as there is no primary.
+    void reconfigureClonedSet() throws ClusterLaunchException {
+        Document wanted = buildConfig();
+        
+        try (MongoClient client = MongoCommands.connect(ports.get(0), COMMAND_TIMEOUT_MS)) {
+            Document current = MongoCommands.runAdminCommand(client, new Document("replSetGetConfig", 1))
+                .get("config", Document.class);
+            List<String> currentHosts = current.getList("members", Document.class).stream()
+                .map(m -> m.getString("host"))
+                .collect(Collectors.toList());
+            List<String> wantedHosts = wanted.getList("members", Document.class).stream()
+                .map(m -> m.getString("host"))
+                .collect(Collectors.toList());
+            if (currentHosts.equals(wantedHosts) && !fastElection) {
+                logger.info("Cloned replica set {} already lists these hosts", replSetName);
+                return;
+            }
+            
+            Document config = new Document(current);
+            config.put("version", ((Number) current.get("version")).intValue() + 1);
+            config.put("members", wanted.get("members"));
+            if (fastElection) {
+                Document settings = new Document(current.get("settings", new Document()));
+                settings.putAll(wanted.get("settings", Document.class));
+                config.put("settings", settings);
+            }
+            
+            logger.info("Reconfiguring cloned replica set {} for ports {}", replSetName, ports);
+            MongoCommands.runAdminCommand(client, new Document("replSetReconfig", config).append("force", true));
+        } catch (Exception e) {
+            throw new ClusterLaunchException("Failed to reconfigure cloned replica set " + replSetName, e);
+        }
+    }
+    
+    // Rather than waiting out an election timeout, ask the preferred member to stand for
+    // election as soon as it has loaded the config and become a secondary
+    private void stepUpPreferredPrimary(MongoClient client) throws InterruptedException {
+        long deadline = System.nanoTime() + STEP_UP_WAIT_MS * 1_000_000L;
+        Backoff backoff = new Backoff(10, 200, 1.5);
+        
+        while (System.nanoTime() < deadline) {
+            Document hello = MongoCommands.hello(client);
+            if (hello.getBoolean("isWritablePrimary", false)) {
+                return;
+            }
+            if (hello.getBoolean("secondary", false)) {
+                try {
+                    MongoCommands.runAdminCommand(client, new Document("replSetStepUp", 1));
+                    logger.debug("Requested step up on port {}", ports.get(0));
+                } catch (MongoCommandException e) {
+                    // An election may already be under way; awaitPrimary will see the outcome
+                    logger.debug("replSetStepUp on port {} failed: {}", ports.get(0), e.getErrorMessage());
+                }
+                return;
+            }
+            backoff.sleepUntil(deadline);
+        }
+    }
+    
+    int awaitPrimary(long timeoutMillis) throws ClusterLaunchException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        Backoff backoff = new Backoff(20, 500, 1.5);
+        List<MongoClient> clients = new ArrayList<>();
+        
+        try {
+            for (int port : ports) {
+                clients.add(MongoCommands.connect(port, COMMAND_TIMEOUT_MS));
+            }
+            
+            while (true) {
+                for (int i = 0; i < clients.size(); i++) {
+                    try {
+                        Document hello = MongoCommands.hello(clients.get(i));
+                        if (hello.getBoolean("isWritablePrimary", false)) {
+                            logger.info("Replica set {} elected primary on port {}", replSetName, ports.get(i));
+                            return ports.get(i);
+                        }
+                    } catch (Exception e) {
+                        logger.debug("hello failed on port {}: {}", ports.get(i), e.getMessage());
+                    }
+                }
+                
+                if (System.nanoTime() >= deadline) {
+                    throw new ClusterLaunchException("Timed out after " + timeoutMillis
+                        + " ms waiting for replica set " + replSetName + " to elect a primary");
+                }
+                backoff.sleepUntil(deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterLaunchException("Interrupted while waiting for a primary in " + replSetName, e);
+        } finally {
+            clients.forEach(MongoClient::close);
+        }
+    }
+    
+    String getReplSetName() {
+        return replSetName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.mongodb.launcher.local;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.ClusterMember;
+import com.mongodb.launcher.LocalClusterSpec;
+import com.mongodb.launcher.config.ConfigManager;
+import com.mongodb.launcher.version.PlatformDetector;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Named snapshots of a mongod dbpath, kept under the config directory:
+//
+//   templates/<name>/template.json   what the data is and where it came from
+//   templates/<name>/data/           the dbpath itself
+//
+// Clusters launched from a template get a clone of data/ in each member's dbpath instead of an
+// empty one. On filesystems with copy-on-write support (btrfs, XFS with reflink, APFS) the clone
+// shares blocks with the template and takes moments whatever the data size; elsewhere it is a
+// plain copy. Hardlinks are never used, since WiredTiger rewrites its files in place and would
+// corrupt the template through them.
+public class TemplateManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TemplateManager.class);
+    
+    private static final String TEMPLATES_DIR = "templates";
+    private static final String METADATA_FILE = "template.json";
+    private static final String DATA_DIR = "data";
+    private static final long COMMAND_TIMEOUT_MS = 10_000;
+    
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+    
+    private final Path templatesDir;
+    private final ObjectMapper objectMapper;
+    private final ProcessSupervisor supervisor = new ProcessSupervisor(Runnable::run);
+    
+    public TemplateManager() {
+        this(new ConfigManager().getConfigDirectory().resolve(TEMPLATES_DIR));
+    }
+    
+    public TemplateManager(Path templatesDir) {
+        this.templatesDir = templatesDir;
+        this.objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+    
+    // Snapshots one mongod of a standalone or replica set cluster. A running member is held
+    // under fsyncLock while its files are cloned so the copy is consistent; a stopped one was
+    // shut down cleanly and is copied as is.
+    public DataTemplate capture(ClusterInstance instance, String name) throws ClusterLaunchException {
+        if (!VALID_NAME.matcher(name).matches()) {
+            throw new ClusterLaunchException("Invalid template name: " + name);
+        }
+        if (!(instance.getSpec() instanceof LocalClusterSpec)) {
+            throw new ClusterLaunchException("Templates can only be captured from local clusters: " + instance.getName());
+        }
+        LocalClusterSpec spec = (LocalClusterSpec) instance.getSpec();
+        if (spec.getTopology() == LocalClusterSpec.LocalTopology.SHARDED) {
+            throw new ClusterLaunchException("Templates cannot be captured from sharded clusters: " + instance.getName());
+        }
+        if (Files.exists(templateDir(name))) {
+            throw new ClusterLaunchException("Template already exists: " + name);
+        }
+        
+        ClusterMember source = chooseSource(instance);
+        DataTemplate template = new DataTemplate(name, spec.getMongoVersion(), source.getReplicaSetName(), instance.getName());
+        logger.info("Capturing template {} from {}", name, source);
+        
+        Path staging = null;
+        try {
+            Files.createDirectories(templatesDir);
+            staging = Files.createTempDirectory(templatesDir, ".capture-");
+            Path data = staging.resolve(DATA_DIR);
+            copyDbPath(source, data);
+            
+            template.setSizeBytes(sizeOf(data));
+            Files.write(staging.resolve(METADATA_FILE), objectMapper.writeValueAsBytes(template));
+            Files.move(staging, templateDir(name), StandardCopyOption.ATOMIC_MOVE);
+            staging = null;
+            
+            logger.info("Captured template {} ({} bytes)", name, template.getSizeBytes());
+            return template;
+        } catch (IOException | MongoException e) {
+            throw new ClusterLaunchException("Failed to capture template " + name + " from cluster " + instance.getName(), e);
+        } finally {
+            if (staging != null) {
+                try {
+                    deleteRecursively(staging);
+                } catch (IOException e) {
+                    logger.warn("Failed to clean up {}: {}", staging, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    public Optional<DataTemplate> find(String name) throws IOException {
+        if (!VALID_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        try {
+            byte[] metadata = Files.readAllBytes(templateDir(name).resolve(METADATA_FILE));
+            return Optional.of(objectMapper.readValue(metadata, DataTemplate.class));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+    
+    public List<DataTemplate> list() throws IOException {
+        if (!Files.isDirectory(templatesDir)) {
+            return new ArrayList<>();
+        }
+        
+        List<DataTemplate> templates = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(templatesDir)) {
+            for (Path dir : dirs.collect(Collectors.toList())) {
+                Optional<DataTemplate> template = find(dir.getFileName().toString());
+                template.ifPresent(templates::add);
+            }
+        }
+        templates.sort(Comparator.comparing(DataTemplate::getName));
+        return templates;
+    }
+    
+    public boolean remove(String name) throws IOException {
+        if (find(name).isEmpty()) {
+            return false;
+        }
+        deleteRecursively(templateDir(name));
+        return true;
+    }
+    
+    // Seeds an empty dbpath with the template's data
+    void cloneInto(DataTemplate template, Path dbPath) throws IOException {
+        if (Files.isDirectory(dbPath)) {
+            try (Stream<Path> existing = Files.list(dbPath)) {
+                if (existing.findAny().isPresent()) {
+                    throw new IOException("Data directory " + dbPath + " is not empty, refusing to seed it from template "
+                        + template.getName());
+                }
+            }
+        }
+        cloneDirectory(templateDir(template.getName()).resolve(DATA_DIR), dbPath);
+        logger.debug("Seeded {} from template {}", dbPath, template.getName());
+    }
+    
+    // The primary of a running replica set, so the template has every acknowledged write;
+    // otherwise the first data-bearing member
+    private ClusterMember chooseSource(ClusterInstance instance) throws ClusterLaunchException {
+        List<ClusterMember> candidates = instance.getMembers().stream()
+            .filter(m -> m.getRole() != ClusterMember.Role.MONGOS && m.getDbPath() != null)
+            .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            throw new ClusterLaunchException("Cluster " + instance.getName() + " has no recorded data directories");
+        }
+        
+        for (ClusterMember member : candidates) {
+            if (member.getRole() == ClusterMember.Role.STANDALONE || !supervisor.isRunning(member)) {
+                continue;
+            }
+            try (MongoClient client = MongoCommands.connect(member.getPort(), COMMAND_TIMEOUT_MS)) {
+                if (MongoCommands.hello(client).getBoolean("isWritablePrimary", false)) {
+                    return member;
+                }
+            } catch (MongoException e) {
+                logger.debug("hello failed on port {}: {}", member.getPort(), e.getMessage());
+            }
+        }
+        return candidates.get(0);
+    }
+    
+    private void copyDbPath(ClusterMember source, Path target) throws IOException {
+        Path dbPath = Paths.get(source.getDbPath());
+        if (!supervisor.isRunning(source)) {
+            cloneDirectory(dbPath, target);
+            return;
+        }
+        
+        // fsyncLock flushes everything to disk and blocks writes until the matching unlock
+        try (MongoClient client = MongoCommands.connect(source.getPort(), COMMAND_TIMEOUT_MS)) {
+            MongoCommands.runAdminCommand(client, new Document("fsync", 1).append("lock", true));
+            try {
+                cloneDirectory(dbPath, target);
+            } finally {
+                MongoCommands.runAdminCommand(client, new Document("fsyncUnlock", 1));
+            }
+        }
+    }
+    
+    static void cloneDirectory(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        if (!copyWithCp(source, target)) {
+            copyRecursively(source, target);
+        }
+        removeProcessFiles(target);
+    }
+    
+    // cp shares extents with the source where the filesystem allows: --reflink=auto on Linux
+    // (and falls back to a normal copy itself), -c (clonefile) on macOS
+    private static boolean copyWithCp(Path source, Path target) throws IOException {
+        List<String> command;
+        switch (PlatformDetector.detect().getOs()) {
+            case LINUX:
+                command = List.of("cp", "-a", "--reflink=auto", source + "/.", target.toString());
+                break;
+            case MACOS:
+                command = List.of("cp", "-c", "-R", "-p", source + "/.", target.toString());
+                break;
+            default:
+                return false;
+        }
+        
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() == 0) {
+                return true;
+            }
+            logger.debug("cp failed, falling back to a plain copy: {}", output.trim());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying " + source);
+        } catch (IOException e) {
+            logger.debug("cp unavailable, falling back to a plain copy: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    private static void copyRecursively(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.collect(Collectors.toList())) {
+                Path destination = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+    }
+    
+    // Files that belong to the process that wrote the dbpath rather than to the data
+    private static void removeProcessFiles(Path dbPath) throws IOException {
+        Files.deleteIfExists(dbPath.resolve("mongod.lock"));
+        deleteRecursively(dbPath.resolve("diagnostic.data"));
+        try (Stream<Path> files = Files.list(dbPath)) {
+            for (Path log : files.filter(f -> f.getFileName().toString().startsWith("mongod.log")).collect(Collectors.toList())) {
+                Files.deleteIfExists(log);
+            }
+        }
+    }
+    
+    private static long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            long size = 0;
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                size += Files.size(path);
+            }
+            return size;
+        }
+    }
+    
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+    
+    private Path templateDir(String name) {
+        return templatesDir.resolve(name);
+    }
+    
+    public Path getTemplatesDirectory() {
+        return templatesDir;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,335 @@
+package com.mongodb.launcher.state;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// Durable record of the clusters launched from this machine, kept under the config directory:
+//
+//   clusters/records/<id>.json   one file per cluster, replaced atomically on every write
+//   clusters/names/<name>        the id currently using a name, or "reserved:<pid>" while the
+//                                process with that pid launches a cluster under it
+//
+// Looking a cluster up by id or name reads one or two small files, whatever the number of
+// clusters. Writes go to a temp file that is renamed into place, so readers never see a partial
+// record and need no lock; writers from different processes serialize on a file lock.
+// Destroyed clusters are kept as tombstones and swept by a background compaction pass.
+public class ClusterStateStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterStateStore.class);
+    
+    private static final String RECORDS_DIR = "records";
+    private static final String NAMES_DIR = "names";
+    private static final String LOCK_FILE = ".lock";
+    private static final String COMPACTION_MARKER = ".last-compaction";
+    private static final String RECORD_SUFFIX = ".json";
+    private static final String RESERVATION_PREFIX = "reserved:";
+    
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(1);
+    private static final Duration COMPACTION_INTERVAL = Duration.ofHours(1);
+    
+    private final Path stateDir;
+    private final Path recordsDir;
+    private final Path namesDir;
+    private final ObjectMapper objectMapper;
+    
+    public ClusterStateStore(ConfigManager configManager) throws IOException {
+        this(configManager.getConfigDirectory().resolve("clusters"));
+    }
+    
+    public ClusterStateStore(Path stateDir) throws IOException {
+        this.stateDir = stateDir;
+        this.recordsDir = stateDir.resolve(RECORDS_DIR);
+        this.namesDir = stateDir.resolve(NAMES_DIR);
+        this.objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        
+        Files.createDirectories(recordsDir);
+        Files.createDirectories(namesDir);
+    }
+    
+    // Claims a name for a launch about to start, so two launches cannot both pass the name check.
+    // Fails if a live cluster or another running launch holds it. save() turns the reservation
+    // into the cluster's entry; releaseName() gives it up if the launch fails.
+    public void reserveName(String name) throws IOException {
+        withLock(() -> {
+            Optional<String> owner = readName(name);
+            if (owner.isPresent() && isActive(owner.get())) {
+                throw new IOException(owner.get().startsWith(RESERVATION_PREFIX)
+                    ? "A cluster named '" + name + "' is being launched by process "
+                        + owner.get().substring(RESERVATION_PREFIX.length())
+                    : "A cluster named '" + name + "' already exists: " + owner.get());
+            }
+            writeAtomically(nameFile(name), ownReservation().getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+    
+    // Drops this process's reservation of name; a name already saved to a cluster is kept
+    public void releaseName(String name) throws IOException {
+        withLock(() -> {
+            Optional<String> owner = readName(name);
+            if (owner.isPresent() && owner.get().equals(ownReservation())) {
+                Files.deleteIfExists(nameFile(name));
+            }
+            return null;
+        });
+    }
+    
+    public void save(ClusterInstance instance) throws IOException {
+        withLock(() -> {
+            Path nameFile = nameFile(instance.getName());
+            Optional<String> owner = readName(instance.getName());
+            
+            if (instance.getStatus() == ClusterInstance.Status.DESTROYED) {
+                // Free the name for reuse; the record stays behind as a tombstone
+                if (owner.isPresent() && owner.get().equals(instance.getId())) {
+                    Files.deleteIfExists(nameFile);
+                }
+            } else if (owner.isEmpty() || !owner.get().equals(instance.getId())) {
+                if (owner.isPresent() && !owner.get().equals(ownReservation()) && isActive(owner.get())) {
+                    throw new IOException("Cluster name '" + instance.getName()
+                        + "' is already in use by " + owner.get());
+                }
+                writeAtomically(nameFile, instance.getId().getBytes(StandardCharsets.UTF_8));
+            }
+            
+            writeAtomically(recordFile(instance.getId()), objectMapper.writeValueAsBytes(instance));
+            return null;
+        });
+        compactInBackground();
+    }
+    
+    public Optional<ClusterInstance> findById(String id) throws IOException {
+        try {
+            return Optional.of(objectMapper.readValue(Files.readAllBytes(recordFile(id)), ClusterInstance.class));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+    
+    public Optional<ClusterInstance> findByName(String name) throws IOException {
+        Optional<String> id = readName(name);
+        return id.isPresent() ? findById(id.get()) : Optional.empty();
+    }
+    
+    // Accepts either form the CLI takes: a cluster id or the name of a live cluster
+    public Optional<ClusterInstance> find(String idOrName) throws IOException {
+        Optional<ClusterInstance> byId = findById(idOrName);
+        return byId.isPresent() ? byId : findByName(idOrName);
+    }
+    
+    public List<ClusterInstance> list() throws IOException {
+        List<ClusterInstance> instances = new ArrayList<>();
+        try (DirectoryStream<Path> records = Files.newDirectoryStream(recordsDir, "*" + RECORD_SUFFIX)) {
+            for (Path record : records) {
+                try {
+                    instances.add(objectMapper.readValue(Files.readAllBytes(record), ClusterInstance.class));
+                } catch (NoSuchFileException e) {
+                    // Removed by a concurrent compaction
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable cluster record {}: {}", record, e.getMessage());
+                }
+            }
+        }
+        instances.sort(Comparator.comparing(ClusterInstance::getCreatedAt,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        return instances;
+    }
+    
+    public void remove(String id) throws IOException {
+        withLock(() -> {
+            Optional<ClusterInstance> instance = findById(id);
+            if (instance.isPresent()) {
+                Optional<String> owner = readName(instance.get().getName());
+                if (owner.isPresent() && owner.get().equals(id)) {
+                    Files.deleteIfExists(nameFile(instance.get().getName()));
+                }
+            }
+            Files.deleteIfExists(recordFile(id));
+            return null;
+        });
+    }
+    
+    // Drops tombstones past their retention and name entries whose cluster is gone. Runs at
+    // most once per interval across all processes, on a daemon thread so commands never wait.
+    public void compactInBackground() {
+        Path marker = stateDir.resolve(COMPACTION_MARKER);
+        try {
+            if (Files.exists(marker)) {
+                FileTime last = Files.getLastModifiedTime(marker);
+                if (last.toMillis() + COMPACTION_INTERVAL.toMillis() > System.currentTimeMillis()) {
+                    return;
+                }
+            }
+            Files.write(marker, new byte[0]);
+        } catch (IOException e) {
+            logger.debug("Skipping compaction: {}", e.getMessage());
+            return;
+        }
+        
+        Thread thread = new Thread(() -> {
+            try {
+                compact();
+            } catch (IOException | UncheckedIOException e) {
+                logger.debug("Cluster state compaction failed: {}", e.getMessage());
+            }
+        }, "cluster-state-compaction");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void compact() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(TOMBSTONE_RETENTION);
+        int removed = 0;
+        
+        for (ClusterInstance instance : list()) {
+            if (instance.getStatus() == ClusterInstance.Status.DESTROYED
+                    && instance.getLastUpdated() != null
+                    && instance.getLastUpdated().isBefore(cutoff)) {
+                remove(instance.getId());
+                removed++;
+            }
+        }
+        
+        try (DirectoryStream<Path> names = Files.newDirectoryStream(namesDir)) {
+            for (Path nameFile : names) {
+                withLock(() -> {
+                    String id = readString(nameFile);
+                    if (id != null && !isActive(id)) {
+                        Files.deleteIfExists(nameFile);
+                    }
+                    return null;
+                });
+            }
+        }
+        
+        logger.debug("Compacted cluster state, removed {} tombstone(s)", removed);
+    }
+    
+    // A reservation is active while the process that made it runs
+    private boolean isActive(String id) throws IOException {
+        if (id.startsWith(RESERVATION_PREFIX)) {
+            try {
+                long pid = Long.parseLong(id.substring(RESERVATION_PREFIX.length()));
+                return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        Optional<ClusterInstance> instance = findById(id);
+        return instance.isPresent() && instance.get().getStatus() != ClusterInstance.Status.DESTROYED;
+    }
+    
+    private static String ownReservation() {
+        return RESERVATION_PREFIX + ProcessHandle.current().pid();
+    }
+    
+    private Optional<String> readName(String name) throws IOException {
+        return Optional.ofNullable(readString(nameFile(name)));
+    }
+    
+    private static String readString(Path file) throws IOException {
+        try {
+            String value = Files.readString(file, StandardCharsets.UTF_8).trim();
+            return value.isEmpty() ? null : value;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+    
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".tmp-", null);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(content));
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // The file lock serializes processes; it is held per JVM, so threads also need the monitor
+    private <T> T withLock(LockedOperation<T> operation) throws IOException {
+        synchronized (ClusterStateStore.class) {
+            return withFileLock(operation);
+        }
+    }
+    
+    private <T> T withFileLock(LockedOperation<T> operation) throws IOException {
+        try (FileChannel channel = FileChannel.open(stateDir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return operation.run();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+    
+    private Path recordFile(String id) {
+        return recordsDir.resolve(encode(id) + RECORD_SUFFIX);
+    }
+    
+    private Path nameFile(String name) {
+        return namesDir.resolve(encode(name));
+    }
+    
+    // Keeps ids and names usable as file names on every platform
+    static String encode(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                sb.append(c);
+            } else {
+                sb.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return sb.toString();
+    }
+    
+    public Path getStateDirectory() {
+        return stateDir;
+    }
+    
+    @FunctionalInterface
+    private interface LockedOperation<T> {
+        T run() throws IOException;
+    }
+}
\ No newline at end of file
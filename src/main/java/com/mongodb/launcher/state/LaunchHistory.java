@@ -0,0 +1,284 @@
+package com.mongodb.launcher.state;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.util.LaunchTimings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Phase timings of the most recent launches, one JSON record per line in
+// <state>/launch-history.jsonl, oldest first. Appends are cheap; the file is rewritten only when
+// it grows past twice its capacity, and then keeps only the newest capacity records.
+public class LaunchHistory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LaunchHistory.class);
+    
+    private static final String HISTORY_FILE = "launch-history.jsonl";
+    private static final String LOCK_FILE = ".history.lock";
+    
+    public static final int DEFAULT_CAPACITY = 200;
+    
+    private final Path historyFile;
+    private final Path lockFile;
+    private final int capacity;
+    private final ObjectMapper objectMapper;
+    
+    public LaunchHistory(ClusterStateStore store) {
+        this(store.getStateDirectory(), DEFAULT_CAPACITY);
+    }
+    
+    public LaunchHistory(Path stateDir, int capacity) {
+        this.historyFile = stateDir.resolve(HISTORY_FILE);
+        this.lockFile = stateDir.resolve(LOCK_FILE);
+        this.capacity = capacity;
+        this.objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+    
+    // Records the launch if the launcher attached timings to it
+    public void record(ClusterInstance instance) throws IOException {
+        Map<String, Long> phases = timingsOf(instance);
+        if (phases.isEmpty()) {
+            return;
+        }
+        
+        Entry entry = new Entry();
+        entry.setId(instance.getId());
+        entry.setName(instance.getName());
+        entry.setType(instance.getSpec().getType().toString().toLowerCase());
+        entry.setLaunchedAt(instance.getCreatedAt() != null ? instance.getCreatedAt() : LocalDateTime.now());
+        entry.setPhases(phases);
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        
+        withLock(() -> {
+            Files.write(historyFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (countLines() > capacity * 2) {
+                List<Entry> entries = readAll();
+                rewrite(entries.subList(Math.max(0, entries.size() - capacity), entries.size()));
+            }
+            return null;
+        });
+    }
+    
+    // The last count launches, oldest first
+    public List<Entry> recent(int count) throws IOException {
+        List<Entry> entries = readAll();
+        return new ArrayList<>(entries.subList(Math.max(0, entries.size() - count), entries.size()));
+    }
+    
+    // Percentiles per phase over the given launches. Items of one phase ran concurrently, so a
+    // launch counts the slowest of them, e.g. its slowest member for "ready".
+    public static Map<String, PhaseStats> summarize(List<Entry> entries) {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            Map<String, Long> slowest = new LinkedHashMap<>();
+            entry.getPhases().forEach((phase, millis) -> slowest.merge(LaunchTimings.baseName(phase), millis, Math::max));
+            slowest.forEach((phase, millis) -> samples.computeIfAbsent(phase, p -> new ArrayList<>()).add(millis));
+        }
+        
+        Map<String, PhaseStats> stats = new LinkedHashMap<>();
+        samples.forEach((phase, values) -> stats.put(phase, new PhaseStats(values)));
+        return stats;
+    }
+    
+    // Timings come back from the state store as a map of Integer or Long
+    public static Map<String, Long> timingsOf(ClusterInstance instance) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        Object timings = instance.getMetadata() != null ? instance.getMetadata().get(LaunchTimings.METADATA_KEY) : null;
+        if (timings instanceof Map) {
+            ((Map<?, ?>) timings).forEach((phase, millis) -> {
+                if (millis instanceof Number) {
+                    phases.put(phase.toString(), ((Number) millis).longValue());
+                }
+            });
+        }
+        return phases;
+    }
+    
+    // Counts newlines without parsing, so an append does not cost a read of every record
+    private long countLines() throws IOException {
+        long lines = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(historyFile)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+    
+    private List<Entry> readAll() throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return new ArrayList<>();
+        }
+        
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(objectMapper.readValue(line, Entry.class));
+            } catch (IOException e) {
+                // A line cut short by a crash mid-append
+                logger.debug("Skipping malformed launch history line: {}", e.getMessage());
+            }
+        }
+        return entries;
+    }
+    
+    private void rewrite(List<Entry> entries) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            sb.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        Path temp = Files.createTempFile(historyFile.getParent(), ".tmp-", null);
+        try {
+            Files.write(temp, sb.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, historyFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // The file lock serializes processes; it is held per JVM, so threads also need the monitor
+    private <T> T withLock(LockedOperation<T> operation) throws IOException {
+        synchronized (LaunchHistory.class) {
+            Files.createDirectories(lockFile.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    return operation.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface LockedOperation<T> {
+        T run() throws IOException;
+    }
+    
+    public static class Entry {
+        private String id;
+        private String name;
+        private String type;
+        private LocalDateTime launchedAt;
+        private Map<String, Long> phases = new LinkedHashMap<>();
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public void setType(String type) {
+            this.type = type;
+        }
+        
+        public LocalDateTime getLaunchedAt() {
+            return launchedAt;
+        }
+        
+        public void setLaunchedAt(LocalDateTime launchedAt) {
+            this.launchedAt = launchedAt;
+        }
+        
+        public Map<String, Long> getPhases() {
+            return phases;
+        }
+        
+        public void setPhases(Map<String, Long> phases) {
+            this.phases = phases;
+        }
+    }
+    
+    public static class PhaseStats {
+        private final int count;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long max;
+        
+        PhaseStats(List<Long> values) {
+            List<Long> sorted = new ArrayList<>(values);
+            sorted.sort(null);
+            this.count = sorted.size();
+            this.p50 = percentile(sorted, 50);
+            this.p90 = percentile(sorted, 90);
+            this.p99 = percentile(sorted, 99);
+            this.max = sorted.get(sorted.size() - 1);
+        }
+        
+        // Nearest-rank percentile
+        private static long percentile(List<Long> sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+            return sorted.get(Math.max(0, rank - 1));
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public long getP50() {
+            return p50;
+        }
+        
+        public long getP90() {
+            return p90;
+        }
+        
+        public long getP99() {
+            return p99;
+        }
+        
+        public long getMax() {
+            return max;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.mongodb.launcher.util;
+
+import com.mongodb.launcher.ClusterInstance;
+import com.mongodb.launcher.ClusterLaunchException;
+import com.mongodb.launcher.LaunchListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bridges between the blocking and the CompletableFuture forms of launcher operations
+public final class AsyncSupport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSupport.class);
+    
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    
+    // For blocking calls wrapped as futures; the common pool is not meant for those
+    private static final ExecutorService BLOCKING = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "cluster-launcher-async-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private AsyncSupport() {}
+    
+    public static <T> CompletableFuture<T> supplyAsync(BlockingSupplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return supplier.get();
+            } catch (ClusterLaunchException e) {
+                throw new CompletionException(e);
+            }
+        }, BLOCKING);
+    }
+    
+    public static CompletableFuture<Void> runAsync(BlockingRunnable runnable) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+    
+    // Waits for the future and rethrows its failure as the exception the blocking API declares
+    public static <T> T join(CompletableFuture<T> future) throws ClusterLaunchException {
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            throw new ClusterLaunchException("Operation was cancelled", e);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ClusterLaunchException) {
+                throw (ClusterLaunchException) cause;
+            }
+            throw new ClusterLaunchException(cause.getMessage(), cause);
+        }
+    }
+    
+    // Listener callbacks must not be able to fail a launch
+    public static void notifyStatus(LaunchListener listener, ClusterInstance instance) {
+        try {
+            listener.statusChanged(instance, instance.getStatus());
+        } catch (RuntimeException e) {
+            logger.warn("Launch listener failed: {}", e.toString());
+        }
+    }
+    
+    public static void notifyPhase(LaunchListener listener, ClusterInstance instance, String phase, long millis) {
+        try {
+            listener.phaseCompleted(instance, phase, millis);
+        } catch (RuntimeException e) {
+            logger.warn("Launch listener failed: {}", e.toString());
+        }
+    }
+    
+    @FunctionalInterface
+    public interface BlockingSupplier<T> {
+        T get() throws ClusterLaunchException;
+    }
+    
+    @FunctionalInterface
+    public interface BlockingRunnable {
+        void run() throws ClusterLaunchException;
+    }
+}
\ No newline at end of file
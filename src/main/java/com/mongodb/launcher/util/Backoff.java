@@ -0,0 +1,58 @@
+package com.mongodb.launcher.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponential backoff for polling loops. Starts short so a condition that is met quickly is
+// noticed quickly, and grows towards maxMillis for conditions that take a while.
+public class Backoff {
+    
+    private final long initialMillis;
+    private final long maxMillis;
+    private final double multiplier;
+    private final double jitter;
+    private long currentMillis;
+    
+    public Backoff(long initialMillis, long maxMillis, double multiplier) {
+        this(initialMillis, maxMillis, multiplier, 0.0);
+    }
+    
+    // jitter is the fraction by which each delay is randomly varied, e.g. 0.2 for +/-20%
+    public Backoff(long initialMillis, long maxMillis, double multiplier, double jitter) {
+        if (initialMillis <= 0 || maxMillis < initialMillis || multiplier < 1.0 || jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("Invalid backoff parameters");
+        }
+        this.initialMillis = initialMillis;
+        this.maxMillis = maxMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.currentMillis = initialMillis;
+    }
+    
+    public long nextDelayMillis() {
+        long delay = currentMillis;
+        currentMillis = Math.min(maxMillis, (long) Math.ceil(currentMillis * multiplier));
+        
+        if (jitter > 0.0) {
+            double factor = 1.0 + jitter * (ThreadLocalRandom.current().nextDouble() * 2.0 - 1.0);
+            delay = Math.max(1, Math.round(delay * factor));
+        }
+        return delay;
+    }
+    
+    public void sleep() throws InterruptedException {
+        Thread.sleep(nextDelayMillis());
+    }
+    
+    // Sleeps for the next delay, but never past the given System.nanoTime() deadline
+    public void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+        long delay = Math.min(nextDelayMillis(), Math.max(0, remainingMillis));
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+    
+    public void reset() {
+        currentMillis = initialMillis;
+    }
+}
\ No newline at end of file
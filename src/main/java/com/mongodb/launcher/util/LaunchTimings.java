@@ -0,0 +1,91 @@
+package com.mongodb.launcher.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Wall-clock duration of each phase of one launch, in milliseconds, in the order the phases
+// finished. Work that runs concurrently is recorded per item, e.g. "ready:27018" for one member
+// or "initiate:rs0" for one replica set, so the slow item stands out.
+public class LaunchTimings {
+    
+    public static final String METADATA_KEY = "timings";
+    
+    public static final String RESOLVE_VERSION = "resolveVersion";
+    public static final String DOWNLOAD = "download";
+    public static final String EXTRACT = "extract";
+    public static final String RESERVE_PORTS = "reservePorts";
+    public static final String SETUP_DIRECTORIES = "setupDirectories";
+    public static final String SEED_TEMPLATE = "seedTemplate";
+    public static final String SPAWN = "spawn";
+    public static final String READY = "ready";
+    public static final String INITIATE = "initiate";
+    public static final String PRIMARY = "primary";
+    public static final String ADD_SHARDS = "addShards";
+    public static final String PROVISION = "provision";
+    public static final String TOTAL = "total";
+    
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final PhaseListener listener;
+    
+    public LaunchTimings() {
+        this(null);
+    }
+    
+    public LaunchTimings(PhaseListener listener) {
+        this.listener = listener;
+    }
+    
+    public long start() {
+        return System.nanoTime();
+    }
+    
+    public void record(String phase, long phaseStartNanos) {
+        long millis = (System.nanoTime() - phaseStartNanos) / 1_000_000L;
+        synchronized (this) {
+            phases.put(phase, millis);
+        }
+        if (listener != null) {
+            listener.phaseCompleted(phase, millis);
+        }
+    }
+    
+    // Adds the phases of work timed separately, such as an install that ran alongside the launch
+    public void addAll(LaunchTimings other) {
+        Map<String, Long> recorded = other.toMap();
+        synchronized (this) {
+            phases.putAll(recorded);
+        }
+    }
+    
+    public void finish() {
+        record(TOTAL, startNanos);
+    }
+    
+    public synchronized Map<String, Long> toMap() {
+        return new LinkedHashMap<>(phases);
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return phases.toString();
+    }
+    
+    // "ready:27018"; a null item gives the plain phase name
+    public static String phase(String name, Object item) {
+        return item != null ? name + ":" + item : name;
+    }
+    
+    // The phase name without its item suffix
+    public static String baseName(String phase) {
+        int colon = phase.indexOf(':');
+        return colon < 0 ? phase : phase.substring(0, colon);
+    }
+    
+    // Called on the thread that finished the phase. An unchecked exception thrown here
+    // propagates out of record() and fails the launch, which is how launches are cancelled.
+    @FunctionalInterface
+    public interface PhaseListener {
+        void phaseCompleted(String phase, long millis);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.mongodb.launcher.util;
+
+// A token bucket: holds up to capacity tokens and refills at a steady rate, so it allows bursts of
+// capacity requests and ratePerMinute requests per minute on average. Not thread-safe; callers
+// share one under their own lock.
+public class TokenBucket {
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAtNanos;
+    private long blockedUntilNanos;
+    
+    public TokenBucket(int capacity, int ratePerMinute) {
+        if (capacity < 1 || ratePerMinute < 1) {
+            throw new IllegalArgumentException("Invalid token bucket parameters");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerMinute / 60e9;
+        this.tokens = capacity;
+        this.refilledAtNanos = System.nanoTime();
+    }
+    
+    // How long until take() may be called, 0 if a token is available now
+    public long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        long blocked = blockedUntilNanos - nowNanos;
+        if (blocked > 0) {
+            return blocked;
+        }
+        return tokens >= 1.0 ? 0 : (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+    }
+    
+    public void take(long nowNanos) {
+        refill(nowNanos);
+        tokens -= 1.0;
+    }
+    
+    // Empties the bucket and hands out nothing before the given time, for when the other side has
+    // said it is over its limit; afterwards tokens come back at the steady rate, not as a burst
+    public void blockUntil(long nanos) {
+        if (nanos - blockedUntilNanos > 0) {
+            blockedUntilNanos = nanos;
+        }
+        tokens = Math.min(tokens, 0.0);
+    }
+    
+    private void refill(long nowNanos) {
+        long from = blockedUntilNanos - refilledAtNanos > 0 ? blockedUntilNanos : refilledAtNanos;
+        if (nowNanos - from > 0) {
+            tokens = Math.min(capacity, tokens + (nowNanos - from) * tokensPerNano);
+        }
+        if (nowNanos - refilledAtNanos > 0) {
+            refilledAtNanos = nowNanos;
+        }
+    }
+}
\ No newline at end of file
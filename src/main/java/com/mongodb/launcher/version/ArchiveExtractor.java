@@ -0,0 +1,366 @@
+package com.mongodb.launcher.version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Unpacks a MongoDB release archive (.tgz, or .zip on Windows) as it is read, so it can sit
+// directly on a download stream, and computes the SHA-256 of the archive in the same pass. The
+// top-level mongodb-<platform>-<version>/ directory of the archive is dropped, like
+// tar --strip-components=1. Entries that would land outside the destination, or that go through
+// a symbolic link the archive created, are rejected.
+// An include filter, given each entry's path below the top-level directory, leaves out the rest
+// of the archive; it is still read to the end for the checksum, but nothing else is written.
+//
+// The tar reader understands what release tarballs contain: ustar headers, GNU long names and
+// pax path/size records, regular files, directories and links.
+final class ArchiveExtractor {
+    
+    private static final int BLOCK = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    
+    private ArchiveExtractor() {}
+    
+    static String extract(InputStream archive, boolean zip, Path destDir) throws IOException {
+        return extract(archive, zip, destDir, path -> true);
+    }
+    
+    // Returns the hex SHA-256 of every byte read from archive
+    static String extract(InputStream archive, boolean zip, Path destDir, Predicate<String> include) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        
+        DigestInputStream digested = new DigestInputStream(archive, sha256);
+        if (zip) {
+            ZipInputStream in = new ZipInputStream(digested);
+            extractZip(in, destDir, include);
+            in.transferTo(OutputStream.nullOutputStream());
+        } else {
+            GZIPInputStream in = new GZIPInputStream(digested, BUFFER_SIZE);
+            extractTar(in, destDir, include);
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        // Whatever follows the compressed data still counts towards the checksum
+        digested.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+    
+    private static void extractZip(ZipInputStream in, Path destDir, Predicate<String> include) throws IOException {
+        ZipEntry entry;
+        while ((entry = in.getNextEntry()) != null) {
+            Path target = resolve(destDir, entry.getName(), include);
+            if (target != null) {
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            in.closeEntry();
+        }
+    }
+    
+    private static void extractTar(InputStream in, Path destDir, Predicate<String> include) throws IOException {
+        byte[] header = new byte[BLOCK];
+        String longName = null;
+        String longLink = null;
+        long paxSize = -1;
+        
+        while (readBlock(in, header)) {
+            if (isZero(header)) {
+                return;
+            }
+            
+            char type = (char) header[156];
+            long size = paxSize >= 0 ? paxSize : parseNumber(header, 124, 12);
+            String name = longName != null ? longName : entryName(header);
+            String link = longLink != null ? longLink : string(header, 157, 100);
+            
+            // Records that describe the entry after them
+            if (type == 'L' || type == 'K' || type == 'x') {
+                byte[] data = readData(in, size);
+                if (type == 'L') {
+                    longName = trimNul(new String(data, StandardCharsets.UTF_8));
+                } else if (type == 'K') {
+                    longLink = trimNul(new String(data, StandardCharsets.UTF_8));
+                } else {
+                    for (String[] record : paxRecords(data)) {
+                        switch (record[0]) {
+                            case "path" -> longName = record[1];
+                            case "linkpath" -> longLink = record[1];
+                            case "size" -> paxSize = Long.parseLong(record[1]);
+                            default -> { }
+                        }
+                    }
+                }
+                continue;
+            }
+            longName = null;
+            longLink = null;
+            paxSize = -1;
+            
+            Path target = resolve(destDir, name, include);
+            switch (type) {
+                case '5':
+                    if (target != null) {
+                        Files.createDirectories(target);
+                    }
+                    skipData(in, size);
+                    break;
+                case '2':
+                    if (target != null) {
+                        createSymlink(destDir, target, link);
+                    }
+                    skipData(in, size);
+                    break;
+                case '1': {
+                    Path existing = resolve(destDir, link, path -> true);
+                    if (target != null && existing != null) {
+                        if (!Files.exists(existing)) {
+                            throw new InvalidArchiveException("Archive entry " + name + " links to " + link
+                                + ", which was not extracted");
+                        }
+                        Files.createDirectories(target.getParent());
+                        Files.deleteIfExists(target);
+                        Files.createLink(target, existing);
+                    }
+                    skipData(in, size);
+                    break;
+                }
+                case '0':
+                case '\0':
+                case '7':
+                    if (target != null) {
+                        Files.createDirectories(target.getParent());
+                        writeFile(in, target, size, (int) parseNumber(header, 100, 8));
+                        skipPadding(in, size);
+                    } else {
+                        skipData(in, size);
+                    }
+                    break;
+                default:
+                    // Devices, FIFOs, global pax headers: nothing a MongoDB install needs
+                    skipData(in, size);
+            }
+        }
+    }
+    
+    // Replaces whatever is at target, without following it if it is a link
+    private static void writeFile(InputStream in, Path target, long size, int mode) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Files.deleteIfExists(target);
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long remaining = size;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("Archive ends in the middle of " + target.getFileName());
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        if (POSIX) {
+            Files.setPosixFilePermissions(target, permissions(mode));
+        }
+    }
+    
+    // Only links that stay inside the destination
+    private static void createSymlink(Path destDir, Path target, String link) throws IOException {
+        Path resolved = target.getParent().resolve(link).normalize();
+        if (Path.of(link).isAbsolute() || !resolved.startsWith(destDir.normalize())) {
+            throw new InvalidArchiveException("Archive entry " + destDir.relativize(target) + " links outside the archive: "
+                + link);
+        }
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        Files.createSymbolicLink(target, Path.of(link));
+    }
+    
+    // Drops the first path component; null for the top-level directory itself and for entries
+    // the filter leaves out
+    private static Path resolve(Path destDir, String name, Predicate<String> include) throws IOException {
+        String stripped = name.replace('\\', '/');
+        while (stripped.startsWith("./")) {
+            stripped = stripped.substring(2);
+        }
+        int slash = stripped.indexOf('/');
+        if (slash < 0 || slash == stripped.length() - 1) {
+            return null;
+        }
+        stripped = stripped.substring(slash + 1);
+        
+        Path root = destDir.normalize();
+        Path target = destDir.resolve(stripped).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new InvalidArchiveException("Archive entry escapes the install directory: " + name);
+        }
+        String relative = root.relativize(target).toString().replace('\\', '/');
+        if (!include.test(relative)) {
+            return null;
+        }
+        
+        // The check above is lexical, and links extracted earlier can chain out of the destination
+        // even though each one stays inside on paper, so no entry may go through one
+        for (Path dir = target.getParent(); !dir.equals(root); dir = dir.getParent()) {
+            if (Files.isSymbolicLink(dir)) {
+                throw new InvalidArchiveException("Archive entry " + name + " goes through the symbolic link "
+                    + root.relativize(dir));
+            }
+        }
+        return target;
+    }
+    
+    private static String entryName(byte[] header) {
+        String name = string(header, 0, 100);
+        String prefix = string(header, 345, 155);
+        // GNU tars ("ustar  ") keep other fields where POSIX ones keep the prefix
+        boolean ustar = string(header, 257, 6).equals("ustar");
+        return ustar && !prefix.isEmpty() ? prefix + "/" + name : name;
+    }
+    
+    // "<length> <key>=<value>\n" records
+    private static List<String[]> paxRecords(byte[] data) {
+        List<String[]> records = new ArrayList<>();
+        int pos = 0;
+        while (pos < data.length) {
+            int space = pos;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            if (space >= data.length) {
+                break;
+            }
+            int length = Integer.parseInt(new String(data, pos, space - pos, StandardCharsets.US_ASCII));
+            if (length <= 0 || pos + length > data.length) {
+                break;
+            }
+            String record = new String(data, space + 1, pos + length - space - 2, StandardCharsets.UTF_8);
+            int equals = record.indexOf('=');
+            if (equals > 0) {
+                records.add(new String[] {record.substring(0, equals), record.substring(equals + 1)});
+            }
+            pos += length;
+        }
+        return records;
+    }
+    
+    // Octal, or big-endian base-256 when the high bit of the first byte is set (GNU, for sizes of 8 GB and up)
+    private static long parseNumber(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (header[offset + i] & 0xff);
+            }
+            return value;
+        }
+        String octal = string(header, offset, length).trim();
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+    
+    private static Set<PosixFilePermission> permissions(int mode) {
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        PosixFilePermission[] bits = {
+            PosixFilePermission.OTHERS_EXECUTE, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_READ,
+            PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_READ,
+            PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_READ
+        };
+        for (int i = 0; i < bits.length; i++) {
+            if ((mode & (1 << i)) != 0) {
+                permissions.add(bits[i]);
+            }
+        }
+        // Whatever the archive says, the owner must be able to replace and remove the install
+        permissions.add(PosixFilePermission.OWNER_READ);
+        permissions.add(PosixFilePermission.OWNER_WRITE);
+        return permissions;
+    }
+    
+    private static byte[] readData(InputStream in, long size) throws IOException {
+        if (size > Integer.MAX_VALUE - BLOCK) {
+            throw new InvalidArchiveException("Archive header record too large: " + size + " bytes");
+        }
+        byte[] data = in.readNBytes((int) size);
+        if (data.length < size) {
+            throw new IOException("Archive ends in the middle of a header record");
+        }
+        skipPadding(in, size);
+        return data;
+    }
+    
+    private static void skipData(InputStream in, long size) throws IOException {
+        in.skipNBytes(size);
+        skipPadding(in, size);
+    }
+    
+    private static void skipPadding(InputStream in, long size) throws IOException {
+        long padding = (BLOCK - size % BLOCK) % BLOCK;
+        in.skipNBytes(padding);
+    }
+    
+    // False at a clean end of stream; archives without the terminating zero blocks exist
+    private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+        int read = in.readNBytes(block, 0, BLOCK);
+        if (read == 0) {
+            return false;
+        }
+        if (read < BLOCK) {
+            throw new IOException("Archive ends in the middle of a header");
+        }
+        return true;
+    }
+    
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String string(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+    
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul >= 0 ? value.substring(0, nul) : value;
+    }
+    
+    // The archive itself is unusable, as opposed to cut short; fetching it again will not help
+    static class InvalidArchiveException extends IOException {
+        InvalidArchiveException(String message) {
+            super(message);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,621 @@
+package com.mongodb.launcher.version;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.launcher.util.Backoff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Downloads a file as several HTTP Range requests in parallel, each written straight into its
+// place in a preallocated <target>.part file. How far each range got is checkpointed to
+// <target>.part.json, so a download that fails or is interrupted picks up where every range
+// stopped next time, as long as the server still has the same file (same length, and same ETag
+// or Last-Modified if it sent one). Small files and servers without range support get a single
+// plain request.
+//
+// The part file and its manifest belong to whoever holds the file lock on <target>.part.lock for
+// the whole download, so two processes downloading the same file never write over each other's
+// ranges; the second waits and then resumes or restarts from what the first left.
+//
+// Downloads share one HttpClient, so connections to the download host are reused from one
+// version to the next. It speaks HTTP/1.1 because over HTTP/2 the ranges would be multiplexed
+// onto one connection and gain nothing.
+public class BinaryDownloader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BinaryDownloader.class);
+    
+    public static final int DEFAULT_SEGMENTS = 4;
+    
+    private static final long MIN_SEGMENT_BYTES = 4L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long CHECKPOINT_INTERVAL_MS = 1_000;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final String PART_SUFFIX = ".part";
+    private static final String MANIFEST_SUFFIX = ".part.json";
+    private static final String LOCK_SUFFIX = ".part.lock";
+    
+    // File locks are held per JVM, so threads downloading the same file also need the monitor
+    private static final ConcurrentHashMap<Path, Object> DOWNLOAD_LOCKS = new ConcurrentHashMap<>();
+    
+    private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+    
+    private final HttpClient client;
+    private final int segments;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    
+    public BinaryDownloader() {
+        this(SHARED_CLIENT, DEFAULT_SEGMENTS);
+    }
+    
+    public BinaryDownloader(HttpClient client, int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("Segments must be at least 1");
+        }
+        this.client = client;
+        this.segments = segments;
+    }
+    
+    public void download(URI uri, Path target, ProgressListener progress) throws IOException {
+        Path lockFile = sibling(target, LOCK_SUFFIX).toAbsolutePath().normalize();
+        synchronized (DOWNLOAD_LOCKS.computeIfAbsent(lockFile, f -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    logger.info("Waiting for another process to finish downloading {}", target.getFileName());
+                    lock = channel.lock();
+                }
+                try {
+                    downloadLocked(uri, target, progress);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+    
+    private void downloadLocked(URI uri, Path target, ProgressListener progress) throws IOException {
+        Path part = sibling(target, PART_SUFFIX);
+        Path manifestFile = sibling(target, MANIFEST_SUFFIX);
+        Remote remote = probe(uri);
+        
+        if (remote.length < 0 || !remote.acceptsRanges) {
+            logger.debug("{} does not support range requests, downloading it in one piece", uri);
+            Files.deleteIfExists(manifestFile);
+            downloadWhole(uri, part, remote.length, progress);
+        } else {
+            Manifest manifest = loadManifest(manifestFile, part, uri, remote).orElse(null);
+            if (manifest == null) {
+                manifest = plan(uri, remote);
+                try (RandomAccessFile file = new RandomAccessFile(part.toFile(), "rw")) {
+                    file.setLength(remote.length);
+                }
+                saveManifest(manifestFile, manifest);
+            } else {
+                logger.info("Resuming download of {} at {} of {} bytes", uri, manifest.written(), remote.length);
+            }
+            
+            try {
+                downloadSegments(uri, part, manifestFile, manifest, progress);
+            } catch (RemoteChangedException e) {
+                // Nothing downloaded so far can be trusted
+                Files.deleteIfExists(manifestFile);
+                Files.deleteIfExists(part);
+                throw e;
+            }
+        }
+        
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(manifestFile);
+    }
+    
+    // A plain GET whose body is handed to the caller as it arrives, for consumers that process it
+    // on the fly and never keep the file. Nothing is resumable; download() is the fallback.
+    public InputStream openStream(URI uri, ProgressListener progress) throws IOException {
+        HttpResponse<InputStream> response = send(HttpRequest.newBuilder(uri).GET().build(),
+            HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("GET " + uri + " returned HTTP " + response.statusCode());
+        }
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new ProgressInputStream(response.body(), length, progress);
+    }
+    
+    // The body of a small text resource, or empty if the server does not have it
+    public Optional<String> fetchText(URI uri) throws IOException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("GET " + uri + " returned HTTP " + response.statusCode());
+        }
+        return Optional.of(response.body());
+    }
+    
+    // Whether an earlier download() to target stopped part way and can be resumed
+    public static boolean hasPartialDownload(Path target) {
+        return Files.exists(sibling(target, MANIFEST_SUFFIX));
+    }
+    
+    // HEAD for the length and validators; a server that refuses HEAD is downloaded in one piece
+    private Remote probe(URI uri) throws IOException {
+        HttpResponse<Void> response = send(HttpRequest.newBuilder(uri)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            logger.debug("HEAD {} returned HTTP {}", uri, response.statusCode());
+            return new Remote(-1, false, null, null);
+        }
+        return new Remote(
+            response.headers().firstValueAsLong("Content-Length").orElse(-1),
+            response.headers().firstValue("Accept-Ranges").map(v -> v.equalsIgnoreCase("bytes")).orElse(false),
+            response.headers().firstValue("ETag").orElse(null),
+            response.headers().firstValue("Last-Modified").orElse(null));
+    }
+    
+    private Manifest plan(URI uri, Remote remote) {
+        int count = (int) Math.max(1, Math.min(segments, remote.length / MIN_SEGMENT_BYTES));
+        long size = remote.length / count;
+        
+        Manifest manifest = new Manifest();
+        manifest.setUrl(uri.toString());
+        manifest.setLength(remote.length);
+        manifest.setEtag(remote.etag);
+        manifest.setLastModified(remote.lastModified);
+        for (int i = 0; i < count; i++) {
+            Segment segment = new Segment();
+            segment.setStart(i * size);
+            segment.setEnd(i == count - 1 ? remote.length - 1 : (i + 1) * size - 1);
+            manifest.getSegments().add(segment);
+        }
+        return manifest;
+    }
+    
+    private void downloadSegments(URI uri, Path part, Path manifestFile, Manifest manifest, ProgressListener progress)
+            throws IOException {
+        AtomicLong done = new AtomicLong(manifest.written());
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        List<Segment> pending = new ArrayList<>();
+        for (Segment segment : manifest.getSegments()) {
+            if (segment.remaining() > 0) {
+                pending.add(segment);
+            }
+        }
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, pending.size()), r -> {
+            Thread thread = new Thread(r, "download-segment-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Segment segment : pending) {
+                CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+                    try {
+                        fetchSegment(uri, manifest, segment, channel, done, failed);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+                // One range failing for good stops the others at their next buffer
+                future.whenComplete((v, error) -> {
+                    if (error != null) {
+                        firstError.compareAndSet(null, error instanceof CompletionException ? error.getCause() : error);
+                        failed.set(true);
+                    }
+                });
+                futures.add(future);
+            }
+            
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+            try {
+                while (true) {
+                    try {
+                        all.get(CHECKPOINT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        checkpoint(channel, manifestFile, manifest);
+                        progress.progress(done.get(), manifest.getLength());
+                    }
+                }
+            } catch (InterruptedException e) {
+                failed.set(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading " + uri);
+            } catch (ExecutionException e) {
+                // The range that failed first, not one of those it aborted
+                Throwable cause = firstError.get() != null ? firstError.get() : e.getCause();
+                if (cause instanceof RemoteChangedException || cause instanceof InterruptedIOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException("Failed to download " + uri + " (" + manifest.written() + " of "
+                    + manifest.getLength() + " bytes kept for the next attempt): " + cause.getMessage(), cause);
+            } finally {
+                executor.shutdownNow();
+                awaitQuietly(executor);
+                checkpoint(channel, manifestFile, manifest);
+            }
+            channel.force(true);
+            progress.progress(done.get(), manifest.getLength());
+        }
+    }
+    
+    // Retries a failed range from wherever it stopped. Only attempts in a row that got nothing
+    // count towards the limit, so a proxy that keeps dropping long transfers cannot fail it.
+    private void fetchSegment(URI uri, Manifest manifest, Segment segment, FileChannel channel, AtomicLong done,
+                              AtomicBoolean failed) throws IOException {
+        Backoff backoff = new Backoff(1_000, 15_000, 2.0, 0.2);
+        for (int attempt = 1; ; attempt++) {
+            long writtenBefore = segment.getWritten();
+            try {
+                fetchRange(uri, manifest, segment, channel, done, failed);
+                return;
+            } catch (RemoteChangedException | InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (segment.getWritten() > writtenBefore) {
+                    attempt = 1;
+                    backoff.reset();
+                }
+                if (failed.get() || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Range {}-{} of {} failed at byte {} (attempt {} of {}): {}", segment.getStart(),
+                    segment.getEnd(), uri, segment.getStart() + segment.getWritten(), attempt, MAX_ATTEMPTS, e.toString());
+                try {
+                    backoff.sleep();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while downloading " + uri);
+                }
+            }
+        }
+    }
+    
+    private void fetchRange(URI uri, Manifest manifest, Segment segment, FileChannel channel, AtomicLong done,
+                            AtomicBoolean failed) throws IOException {
+        long from = segment.getStart() + segment.getWritten();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .header("Range", "bytes=" + from + "-" + segment.getEnd());
+        // The server answers 200 with the whole new file rather than 206 if it has changed
+        String validator = manifest.getEtag() != null ? manifest.getEtag() : manifest.getLastModified();
+        if (validator != null) {
+            request.header("If-Range", validator);
+        }
+        
+        HttpResponse<InputStream> response = send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body()) {
+            if (response.statusCode() == 200) {
+                throw new RemoteChangedException(uri + " changed since the download started");
+            }
+            if (response.statusCode() != 206) {
+                throw new IOException("GET " + uri + " returned HTTP " + response.statusCode());
+            }
+            
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long position = from;
+            while (position <= segment.getEnd()) {
+                if (failed.get()) {
+                    throw new IOException("Download of " + uri + " was aborted");
+                }
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, segment.getEnd() - position + 1));
+                if (read < 0) {
+                    throw new IOException("Connection closed " + (segment.getEnd() - position + 1)
+                        + " bytes short of the end of range " + segment.getStart() + "-" + segment.getEnd());
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+                segment.setWritten(position - segment.getStart());
+                done.addAndGet(read);
+            }
+        }
+    }
+    
+    private void downloadWhole(URI uri, Path part, long length, ProgressListener progress) throws IOException {
+        HttpResponse<InputStream> response = send(HttpRequest.newBuilder(uri).GET().build(),
+            HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body();
+             FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("GET " + uri + " returned HTTP " + response.statusCode());
+            }
+            
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long written = 0;
+            long reportedAt = System.nanoTime();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    written += channel.write(bytes);
+                }
+                if (System.nanoTime() - reportedAt >= TimeUnit.MILLISECONDS.toNanos(CHECKPOINT_INTERVAL_MS)) {
+                    progress.progress(written, length);
+                    reportedAt = System.nanoTime();
+                }
+            }
+            channel.force(true);
+            progress.progress(written, length);
+        }
+    }
+    
+    // A manifest is only trusted if it describes the same file the server has now
+    private Optional<Manifest> loadManifest(Path manifestFile, Path part, URI uri, Remote remote) {
+        try {
+            Manifest manifest = objectMapper.readValue(Files.readAllBytes(manifestFile), Manifest.class);
+            boolean same = uri.toString().equals(manifest.getUrl())
+                && manifest.getLength() == remote.length
+                && Files.size(part) == remote.length
+                && (remote.etag == null || remote.etag.equals(manifest.getEtag()))
+                && (remote.lastModified == null || remote.lastModified.equals(manifest.getLastModified()));
+            if (same) {
+                return Optional.of(manifest);
+            }
+            logger.info("Discarding partial download of {}: the file on the server has changed", uri);
+        } catch (NoSuchFileException e) {
+            // Nothing to resume
+        } catch (IOException e) {
+            logger.debug("Ignoring unreadable download manifest {}: {}", manifestFile, e.getMessage());
+        }
+        return Optional.empty();
+    }
+    
+    // Data first, so the manifest never claims bytes that are not on disk. The ranges keep
+    // writing meanwhile, so what is saved is how far they had got before the force.
+    private void checkpoint(FileChannel channel, Path manifestFile, Manifest manifest) throws IOException {
+        Manifest snapshot = manifest.snapshot();
+        if (channel.isOpen()) {
+            channel.force(false);
+        }
+        saveManifest(manifestFile, snapshot);
+    }
+    
+    private void saveManifest(Path manifestFile, Manifest manifest) throws IOException {
+        Path temp = Files.createTempFile(manifestFile.getParent(), ".download-", null);
+        try {
+            Files.write(temp, objectMapper.writeValueAsBytes(manifest));
+            Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + request.method() + " " + request.uri());
+        }
+    }
+    
+    private static void awaitQuietly(ExecutorService executor) {
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static Path sibling(Path target, String suffix) {
+        return target.resolveSibling(target.getFileName() + suffix);
+    }
+    
+    @FunctionalInterface
+    public interface ProgressListener {
+        ProgressListener NONE = (bytesDone, totalBytes) -> {};
+        
+        // totalBytes is -1 if the server did not say
+        void progress(long bytesDone, long totalBytes);
+    }
+    
+    // Reports bytes read at most once per checkpoint interval, and once more at the end
+    private static class ProgressInputStream extends FilterInputStream {
+        private final long length;
+        private final ProgressListener progress;
+        private long read;
+        private long reportedAt = System.nanoTime();
+        
+        ProgressInputStream(InputStream in, long length, ProgressListener progress) {
+            super(in);
+            this.length = length;
+            this.progress = progress;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            advance(b < 0 ? -1 : 1);
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int n = super.read(buffer, offset, count);
+            advance(n);
+            return n;
+        }
+        
+        private void advance(int n) {
+            if (n < 0) {
+                progress.progress(read, length);
+                return;
+            }
+            read += n;
+            if (System.nanoTime() - reportedAt >= TimeUnit.MILLISECONDS.toNanos(CHECKPOINT_INTERVAL_MS)) {
+                progress.progress(read, length);
+                reportedAt = System.nanoTime();
+            }
+        }
+    }
+    
+    private static class Remote {
+        private final long length;
+        private final boolean acceptsRanges;
+        private final String etag;
+        private final String lastModified;
+        
+        Remote(long length, boolean acceptsRanges, String etag, String lastModified) {
+            this.length = length;
+            this.acceptsRanges = acceptsRanges;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+    
+    private static class RemoteChangedException extends IOException {
+        RemoteChangedException(String message) {
+            super(message);
+        }
+    }
+    
+    static class Manifest {
+        private String url;
+        private long length;
+        private String etag;
+        private String lastModified;
+        private List<Segment> segments = new ArrayList<>();
+        
+        long written() {
+            return segments.stream().mapToLong(Segment::getWritten).sum();
+        }
+        
+        Manifest snapshot() {
+            Manifest copy = new Manifest();
+            copy.url = url;
+            copy.length = length;
+            copy.etag = etag;
+            copy.lastModified = lastModified;
+            for (Segment segment : segments) {
+                Segment range = new Segment();
+                range.start = segment.start;
+                range.end = segment.end;
+                range.written = segment.written;
+                copy.segments.add(range);
+            }
+            return copy;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public long getLength() {
+            return length;
+        }
+        
+        public void setLength(long length) {
+            this.length = length;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+        
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+        
+        public String getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(String lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        public List<Segment> getSegments() {
+            return segments;
+        }
+        
+        public void setSegments(List<Segment> segments) {
+            this.segments = segments;
+        }
+    }
+    
+    // written is updated by the segment's download thread and read by checkpoints
+    static class Segment {
+        private long start;
+        private long end;
+        private volatile long written;
+        
+        long remaining() {
+            return end - start + 1 - written;
+        }
+        
+        public long getStart() {
+            return start;
+        }
+        
+        public void setStart(long start) {
+            this.start = start;
+        }
+        
+        public long getEnd() {
+            return end;
+        }
+        
+        public void setEnd(long end) {
+            this.end = end;
+        }
+        
+        public long getWritten() {
+            return written;
+        }
+        
+        public void setWritten(long written) {
+            this.written = written;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.mongodb.launcher.version;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The files of installed versions, stored once per content next to the versions directory:
+//
+//   store/<first two hex digits>/<sha256>   one hardlink to every copy of the content
+//   store/refs/<version>                    the hashes the version's files have, one per line
+//
+// Installs link each file of a new version to the blob with the same content, so patch releases
+// that ship identical files share them on disk and in the page cache. A blob no ref list names
+// is garbage. Deleting it only drops the store's own link, never the versions' links, so a
+// collection racing an install can at worst cost the dedup of a file, not the file itself.
+final class BlobStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+    
+    private static final String STORE_DIR = "store";
+    private static final String REFS_DIR = "refs";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Path versionsDir;
+    private final Path root;
+    
+    BlobStore(Path versionsDir) {
+        this.versionsDir = versionsDir;
+        this.root = versionsDir.resolveSibling(STORE_DIR);
+    }
+    
+    // Replaces every regular file below dir by a link to the blob with its content, adding the
+    // blobs that are new, and returns the hashes. Files that cannot be linked, e.g. on a
+    // filesystem without hardlinks, stay as they are.
+    Set<String> deduplicate(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(p -> Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS)).collect(Collectors.toList());
+        }
+        
+        Set<String> hashes = new TreeSet<>();
+        int shared = 0;
+        for (Path file : files) {
+            String hash = sha256(file);
+            hashes.add(hash);
+            if (link(file, hash)) {
+                shared++;
+            }
+        }
+        logger.debug("{} of {} files in {} were already in the blob store", shared, files.size(), dir);
+        return hashes;
+    }
+    
+    // True if the file now shares an existing blob
+    private boolean link(Path file, String hash) throws IOException {
+        Path blob = blobPath(hash);
+        Path temp = file.resolveSibling("." + file.getFileName() + ".link");
+        try {
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Files.createLink(blob, file);
+                return false;
+            }
+            if (Files.isSameFile(blob, file) || !samePermissions(blob, file)) {
+                return false;
+            }
+            Files.createLink(temp, blob);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Includes another install adding the blob first, or a collection removing it in between
+            logger.debug("Keeping {} as a copy: {}", file, e.getMessage());
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // Links share the mode, so a file is only linked to a blob that already has the right one
+    private static boolean samePermissions(Path a, Path b) throws IOException {
+        if (!Files.getFileStore(a).supportsFileAttributeView("posix")) {
+            return true;
+        }
+        return Files.getPosixFilePermissions(a).equals(Files.getPosixFilePermissions(b));
+    }
+    
+    // Adds to the hashes the version already references, as when a minimal install is completed
+    void addRefs(String version, Set<String> hashes) throws IOException {
+        Set<String> refs = new TreeSet<>(readRefs(refsFile(version)));
+        refs.addAll(hashes);
+        
+        Files.createDirectories(root.resolve(REFS_DIR));
+        Path temp = Files.createTempFile(root.resolve(REFS_DIR), ".refs-", null);
+        try {
+            Files.write(temp, String.join("\n", refs).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, refsFile(version), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    void removeRefs(String version) throws IOException {
+        Files.deleteIfExists(refsFile(version));
+    }
+    
+    // Drops the ref lists of versions that are no longer installed, then every blob that no
+    // remaining list names. Returns the bytes freed, which excludes blobs some version directory
+    // still links to without a ref list.
+    long collectGarbage() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        
+        Set<String> live = new HashSet<>();
+        Path refsDir = root.resolve(REFS_DIR);
+        if (Files.isDirectory(refsDir)) {
+            try (Stream<Path> lists = Files.list(refsDir)) {
+                for (Path list : lists.collect(Collectors.toList())) {
+                    String version = list.getFileName().toString();
+                    if (version.startsWith(".")) {
+                        continue;
+                    }
+                    if (!Files.isDirectory(versionsDir.resolve(version))) {
+                        Files.deleteIfExists(list);
+                        continue;
+                    }
+                    live.addAll(readRefs(list));
+                }
+            }
+        }
+        
+        long freed = 0;
+        int removed = 0;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            List<Path> blobs = walk
+                .filter(p -> p.getParent() != null && p.getParent().getParent() != null)
+                .filter(p -> p.getParent().getParent().equals(root) && !p.getParent().equals(refsDir))
+                .collect(Collectors.toList());
+            for (Path blob : blobs) {
+                if (live.contains(blob.getFileName().toString())) {
+                    continue;
+                }
+                long size = Files.size(blob);
+                boolean lastLink = linkCount(blob) <= 1;
+                if (Files.deleteIfExists(blob)) {
+                    removed++;
+                    freed += lastLink ? size : 0;
+                }
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} unused blobs from {}, freeing {} MB", removed, root, freed / (1024 * 1024));
+        }
+        return freed;
+    }
+    
+    // 1 where the filesystem does not report link counts, so the blob counts as freed
+    private static int linkCount(Path path) {
+        try {
+            return (Integer) Files.getAttribute(path, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            return 1;
+        }
+    }
+    
+    private static Set<String> readRefs(Path list) throws IOException {
+        try {
+            return Files.readAllLines(list, StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toSet());
+        } catch (NoSuchFileException e) {
+            return new HashSet<>();
+        }
+    }
+    
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+    
+    private Path refsFile(String version) {
+        return root.resolve(REFS_DIR).resolve(version);
+    }
+}
\ No newline at end of file
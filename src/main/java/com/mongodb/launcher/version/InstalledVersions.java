@@ -0,0 +1,183 @@
+package com.mongodb.launcher.version;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The version directories in each place versions are installed, listed once per JVM and shared
+// by every MongoVersionManager. A listing is reused until its directory changes. Once watch() has
+// been called, a WatchService event marks it stale; otherwise, and for directories that cannot be
+// watched, the directory's mtime is compared at most once a second. Most lookups therefore touch
+// no file at all, which matters on NFS-mounted homes. Installs and removals made by this JVM
+// invalidate the listing right away.
+final class InstalledVersions {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InstalledVersions.class);
+    
+    private static final long CHECK_INTERVAL_MS = 1000;
+    // A listing made this soon after the directory's mtime may have missed a change within the
+    // same timestamp, on filesystems with coarse timestamps
+    private static final long MTIME_GRANULARITY_MS = 2000;
+    
+    private static final ConcurrentHashMap<Path, Listing> LISTINGS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<WatchKey, Path> WATCH_KEYS = new ConcurrentHashMap<>();
+    private static volatile WatchService watchService;
+    
+    private InstalledVersions() {}
+    
+    // Directory name -> version of every version directory in location; empty if it does not exist
+    static Map<String, MongoVersion> versions(Path location) {
+        Listing listing = LISTINGS.get(location);
+        if (listing != null && !listing.isStale()) {
+            return listing.versions;
+        }
+        // Another thread may have reloaded it in the meantime
+        return LISTINGS.compute(location, (dir, current) ->
+            current != null && current != listing && !current.isStale() ? current : load(dir)).versions;
+    }
+    
+    static void invalidate(Path location) {
+        LISTINGS.remove(location);
+    }
+    
+    // For long-running processes: keeps listings current through a WatchService rather than mtime
+    // checks, from a daemon thread shared by the JVM
+    static synchronized void watch() {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Cannot watch version directories, checking their mtime instead: {}", e.getMessage());
+            return;
+        }
+        Thread thread = new Thread(InstalledVersions::processEvents, "installed-versions-watch");
+        thread.setDaemon(true);
+        thread.start();
+        // Listed again, and registered, on next use
+        LISTINGS.clear();
+    }
+    
+    private static void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            key.pollEvents();
+            Path location = WATCH_KEYS.get(key);
+            if (location != null) {
+                invalidate(location);
+            }
+            // No longer valid once the directory is gone; a new listing registers it again
+            if (!key.reset()) {
+                WATCH_KEYS.remove(key);
+            }
+        }
+    }
+    
+    // Registers the watch before listing, so a change made in between still invalidates the listing
+    private static Listing load(Path location) {
+        boolean watched = register(location);
+        long loadedAt = System.currentTimeMillis();
+        long mtime = modifiedTime(location);
+        
+        Map<String, MongoVersion> versions = new HashMap<>();
+        if (mtime >= 0) {
+            try (Stream<Path> entries = Files.list(location)) {
+                for (Path entry : entries.collect(Collectors.toList())) {
+                    String name = entry.getFileName().toString();
+                    if (name.startsWith(".")) {
+                        continue;
+                    }
+                    try {
+                        MongoVersion version = new MongoVersion(name);
+                        if (Files.isDirectory(entry)) {
+                            versions.put(name, version);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // Skip invalid version directories
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to list versions in {}", location, e);
+            }
+        }
+        logger.debug("Indexed {} versions in {}{}", versions.size(), location, watched ? " (watched)" : "");
+        return new Listing(Collections.unmodifiableMap(versions), mtime, loadedAt, watched, location);
+    }
+    
+    private static boolean register(Path location) {
+        WatchService service = watchService;
+        if (service == null || !Files.isDirectory(location)) {
+            return false;
+        }
+        try {
+            WatchKey key = location.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE);
+            WATCH_KEYS.put(key, location);
+            return true;
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            logger.debug("Cannot watch {}, checking its mtime instead: {}", location, e.getMessage());
+            return false;
+        }
+    }
+    
+    // -1 if the directory does not exist
+    private static long modifiedTime(Path location) {
+        try {
+            if (!Files.isDirectory(location)) {
+                return -1;
+            }
+            return Files.getLastModifiedTime(location, LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+    
+    private static class Listing {
+        private final Map<String, MongoVersion> versions;
+        private final long mtime;
+        private final long loadedAt;
+        private final boolean watched;
+        private final Path location;
+        private volatile long checkedAt;
+        
+        Listing(Map<String, MongoVersion> versions, long mtime, long loadedAt, boolean watched, Path location) {
+            this.versions = versions;
+            this.mtime = mtime;
+            this.loadedAt = loadedAt;
+            this.watched = watched;
+            this.location = location;
+            this.checkedAt = loadedAt;
+        }
+        
+        // A watched listing is removed when its directory changes, so it is never stale itself
+        boolean isStale() {
+            long now = System.currentTimeMillis();
+            if (watched || now - checkedAt < CHECK_INTERVAL_MS) {
+                return false;
+            }
+            checkedAt = now;
+            return modifiedTime(location) != mtime || (mtime >= 0 && loadedAt - mtime < MTIME_GRANULARITY_MS);
+        }
+    }
+}
\ No newline at end of file
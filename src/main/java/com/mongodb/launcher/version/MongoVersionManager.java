@@ -1,41 +1,83 @@
 package com.mongodb.launcher.version;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.launcher.config.ConfigManager;
+import com.mongodb.launcher.util.LaunchTimings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.stream.Stream;
 
 public class MongoVersionManager {
     
     private static final Logger logger = LoggerFactory.getLogger(MongoVersionManager.class);
     
-    private static final String MONGODB_RELEASES_URL = "https://api.github.com/repos/mongodb/mongo/releases";
+    private static final String DOWNLOADS_MANIFEST_URL = "https://downloads.mongodb.org/full.json";
     private static final String MONGODB_DOWNLOAD_BASE = "https://fastdl.mongodb.org";
     
+    private static final ConcurrentHashMap<String, Object> INSTALL_LOCKS = new ConcurrentHashMap<>();
+    
+    public static final String INSTALL_MODE_ENV = "MONGO_LAUNCHER_INSTALL_MODE";
+    public static final String INSTALL_MODE_PROPERTY = "installMode";
+    
+    // Left in the version directory of a minimal install
+    private static final String PARTIAL_MARKER = ".partial";
+    // Touched whenever a launch uses the version
+    private static final String LAST_USED_FILE = ".last-used";
+    
+    // Versions used this recently are never evicted, which covers a launch that has resolved its
+    // version but not started mongod yet
+    private static final long EVICTION_GRACE_MS = 10 * 60 * 1000;
+    
+    private static final ExecutorService EVICTION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "version-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     private final Path versionsDir;
+    // Where installed versions are looked up, versionsDir first
+    private final List<Path> locations;
     private final Path binDir;
-    private final ObjectMapper objectMapper;
     private final PlatformDetector.Platform platform;
+    private final PlatformDetector.Distribution distribution;
+    private final BinaryDownloader downloader = new BinaryDownloader();
+    private final ReleaseManifest releases;
+    private final AtomicBoolean evictionPending = new AtomicBoolean();
+    private volatile InstallMode installMode = InstallMode.FULL;
+    private volatile long diskBudgetBytes;
     
     public MongoVersionManager() {
         this(getDefaultVersionsDir());
+        ConfigManager configManager = new ConfigManager();
+        this.installMode = configuredInstallMode(configManager);
+        this.diskBudgetBytes = configManager.getConfig().getVersionsDiskBudgetMb() * 1024 * 1024;
     }
     
     public MongoVersionManager(Path versionsDir) {
         this.versionsDir = versionsDir;
+        Set<Path> locations = new LinkedHashSet<>();
+        locations.add(versionsDir);
+        locations.addAll(standardLocations());
+        this.locations = List.copyOf(locations);
         this.binDir = versionsDir.getParent().resolve("bin");
-        this.objectMapper = new ObjectMapper();
         this.platform = PlatformDetector.detect();
+        this.distribution = PlatformDetector.detectDistribution();
+        this.releases = new ReleaseManifest(URI.create(DOWNLOADS_MANIFEST_URL), cacheDirectory(versionsDir),
+            ReleaseManifest.DEFAULT_TTL);
         
         // Only create directories if we have write permissions and they don't exist
         try {
@@ -53,6 +95,23 @@ public class MongoVersionManager {
         }
     }
     
+    // Next to the versions when that location is writable, like the install itself
+    private static Path cacheDirectory(Path versionsDir) {
+        if (versionsDir.getParent() != null && Files.isWritable(versionsDir.getParent())) {
+            return versionsDir.resolveSibling("cache");
+        }
+        return Paths.get(System.getProperty("user.home"), ".local", "m", "cache");
+    }
+    
+    // Where m installs versions
+    private static List<Path> standardLocations() {
+        return Arrays.asList(
+            Paths.get(System.getProperty("user.home"), ".local", "m", "versions"),
+            Paths.get("/usr/local/m/versions"),
+            Paths.get("/opt/m/versions")
+        );
+    }
+    
     private static Path getDefaultVersionsDir() {
         String mPrefix = System.getenv("M_PREFIX");
         if (mPrefix != null) {
@@ -60,11 +119,7 @@ public class MongoVersionManager {
         }
         
         // Check for existing m installations in common locations
-        List<Path> possibleLocations = Arrays.asList(
-            Paths.get(System.getProperty("user.home"), ".local", "m", "versions"),
-            Paths.get("/usr/local/m/versions"),
-            Paths.get("/opt/m/versions")
-        );
+        List<Path> possibleLocations = standardLocations();
         
         // Find the best writable location with versions
         Path bestWritableLocation = null;
@@ -74,28 +129,24 @@ public class MongoVersionManager {
         Path bestReadOnlyLocation = null;
         int maxTotalVersions = 0;
         
+        // The listings are the ones lookups use afterwards
         for (Path location : possibleLocations) {
-            if (Files.exists(location) && Files.isDirectory(location)) {
-                try {
-                    int versionCount = (int) Files.list(location)
-                        .filter(Files::isDirectory)
-                        .count();
-                    
-                    // Track location with most versions overall
-                    if (versionCount > maxTotalVersions) {
-                        maxTotalVersions = versionCount;
-                        bestReadOnlyLocation = location;
-                    }
-                    
-                    // Check if location is writable
-                    boolean isWritable = Files.isWritable(location.getParent());
-                    if (isWritable && versionCount > maxWritableVersions) {
-                        maxWritableVersions = versionCount;
-                        bestWritableLocation = location;
-                    }
-                } catch (IOException e) {
-                    // Skip this location if we can't read it
-                }
+            int versionCount = InstalledVersions.versions(location).size();
+            if (versionCount == 0) {
+                continue;
+            }
+            
+            // Track location with most versions overall
+            if (versionCount > maxTotalVersions) {
+                maxTotalVersions = versionCount;
+                bestReadOnlyLocation = location;
+            }
+            
+            // Check if location is writable
+            boolean isWritable = Files.isWritable(location.getParent());
+            if (isWritable && versionCount > maxWritableVersions) {
+                maxWritableVersions = versionCount;
+                bestWritableLocation = location;
             }
         }
         
@@ -110,67 +161,16 @@ public class MongoVersionManager {
         return Paths.get(System.getProperty("user.home"), ".local", "m", "versions");
     }
     
+    // Newest first
     public List<MongoVersion> getAvailableVersions() throws IOException {
-        logger.info("Fetching available MongoDB versions...");
-        
-        URL url = new URL(MONGODB_RELEASES_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setRequestProperty("Accept", "application/vnd.github.v3+json");
-        
-        try (InputStream is = conn.getInputStream()) {
-            JsonNode releases = objectMapper.readTree(is);
-            List<MongoVersion> versions = new ArrayList<>();
-            
-            for (JsonNode release : releases) {
-                String tagName = release.get("tag_name").asText();
-                // Remove 'r' prefix if present (e.g., "r7.0.6" -> "7.0.6")
-                if (tagName.startsWith("r")) {
-                    tagName = tagName.substring(1);
-                }
-                
-                try {
-                    versions.add(new MongoVersion(tagName));
-                } catch (IllegalArgumentException e) {
-                    // Skip invalid version formats
-                    logger.debug("Skipping invalid version: {}", tagName);
-                }
-            }
-            
-            return versions.stream()
-                .sorted(Collections.reverseOrder())
-                .collect(Collectors.toList());
-        }
+        return releases.get().getVersions();
     }
     
+    // Newest first, from all m installation locations
     public List<MongoVersion> getInstalledVersions() {
         Set<MongoVersion> allVersions = new HashSet<>();
-        
-        // Scan all possible m installation locations
-        List<Path> possibleLocations = Arrays.asList(
-            versionsDir, // Primary location
-            Paths.get(System.getProperty("user.home"), ".local", "m", "versions"),
-            Paths.get("/usr/local/m/versions"),
-            Paths.get("/opt/m/versions")
-        );
-        
-        for (Path location : possibleLocations) {
-            if (Files.exists(location) && Files.isDirectory(location)) {
-                try {
-                    Files.list(location)
-                        .filter(Files::isDirectory)
-                        .map(path -> path.getFileName().toString())
-                        .forEach(versionStr -> {
-                            try {
-                                allVersions.add(new MongoVersion(versionStr));
-                            } catch (IllegalArgumentException e) {
-                                // Skip invalid version directories
-                            }
-                        });
-                } catch (IOException e) {
-                    logger.warn("Failed to list versions in {}", location, e);
-                }
-            }
+        for (Path location : locations) {
+            allVersions.addAll(InstalledVersions.versions(location).values());
         }
         
         return allVersions.stream()
@@ -188,44 +188,347 @@ public class MongoVersionManager {
     }
     
     private Path findVersionDir(MongoVersion version) {
-        List<Path> possibleLocations = Arrays.asList(
-            versionsDir.resolve(version.getVersion()),
-            Paths.get(System.getProperty("user.home"), ".local", "m", "versions", version.getVersion()),
-            Paths.get("/usr/local/m/versions", version.getVersion()),
-            Paths.get("/opt/m/versions", version.getVersion())
-        );
-        
-        for (Path location : possibleLocations) {
-            if (Files.exists(location) && Files.isDirectory(location)) {
-                return location;
+        for (Path location : locations) {
+            if (InstalledVersions.versions(location).containsKey(version.getVersion())) {
+                return location.resolve(version.getVersion());
             }
         }
-        
         return null;
     }
     
+    // Keeps the installed version index current through filesystem notifications instead of
+    // directory mtime checks, for processes that launch many clusters
+    public void watchInstalledVersions() {
+        InstalledVersions.watch();
+    }
+    
     public Path getMongodPath(MongoVersion version) {
-        String executable = PlatformDetector.getExecutableName("mongod", platform);
-        Path versionDir = getVersionDir(version);
+        return getBinaryPath(version, "mongod");
+    }
+    
+    public Path getMongosPath(MongoVersion version) {
+        return getBinaryPath(version, "mongos");
+    }
+    
+    private Path getBinaryPath(MongoVersion version, String baseName) {
+        return binaryPath(getVersionDir(version), baseName);
+    }
+    
+    private Path binaryPath(Path versionDir, String baseName) {
+        String executable = PlatformDetector.getExecutableName(baseName, platform);
         return versionDir.resolve("bin").resolve(executable);
     }
     
     public void installVersion(MongoVersion version) throws IOException {
-        if (isVersionInstalled(version)) {
-            logger.info("Version {} is already installed", version);
+        installVersion(version, new LaunchTimings());
+    }
+    
+    // Installs the whole archive, or completes a minimal install of the version
+    public void installVersion(MongoVersion version, LaunchTimings timings) throws IOException {
+        install(version, null, timings);
+    }
+    
+    // Whether the version is installed with each of the given binaries, e.g. "mongod"
+    public boolean hasBinaries(MongoVersion version, Set<String> binaries) {
+        Path versionDir = findVersionDir(version);
+        return versionDir != null && binaries.stream().allMatch(b -> Files.exists(binaryPath(versionDir, b)));
+    }
+    
+    // Makes the given binaries of the version available. In MINIMAL mode only they are extracted,
+    // and a later call for another binary extracts just that one into the same version directory.
+    public void installBinaries(MongoVersion version, Set<String> binaries, LaunchTimings timings) throws IOException {
+        install(version, installMode == InstallMode.MINIMAL ? binaries : null, timings);
+    }
+    
+    // Records the download and extract phases in timings. Installs of one version are serialized
+    // across the JVM, so concurrent launches share a single download and the ones that waited
+    // find the version already installed. The version is unpacked next to its final directory and
+    // renamed into place, so it never looks installed while its binaries are still being written;
+    // binaries added to a minimal install are renamed in one by one for the same reason.
+    // binaries is null for the whole archive.
+    private void install(MongoVersion version, Set<String> binaries, LaunchTimings timings) throws IOException {
+        synchronized (INSTALL_LOCKS.computeIfAbsent(version.getVersion(), v -> new Object())) {
+            // Another process may have installed it since the index was last checked
+            locations.forEach(InstalledVersions::invalidate);
+            Path existing = findVersionDir(version);
+            boolean partial = existing != null && Files.exists(existing.resolve(PARTIAL_MARKER));
+            if (existing != null && (!partial || (binaries != null && hasBinaries(version, binaries)))) {
+                logger.info("Version {} is already installed", version);
+                return;
+            }
+            
+            // Ensure we have a writable location for installation
+            Path installLocation = existing != null ? existing.getParent() : getWritableInstallLocation();
+            Predicate<String> entries = path -> true;
+            if (binaries != null) {
+                Set<String> missing = binaries.stream()
+                    .filter(b -> existing == null || !Files.exists(binaryPath(existing, b)))
+                    .collect(Collectors.toCollection(TreeSet::new));
+                entries = binaryEntries(missing);
+                logger.info("Installing {} of MongoDB version {} to {}", String.join(", ", missing), version,
+                    installLocation.getParent());
+            } else {
+                logger.info("Installing MongoDB version {} to {}", version, installLocation.getParent());
+            }
+            
+            ReleaseManifest.Artifact archive = resolveArchive(version);
+            Path versionDir = installLocation.resolve(version.getVersion());
+            Path staging = Files.createTempDirectory(installLocation, "." + version.getVersion() + "-");
+            try {
+                // Extraction overlaps the download, so DOWNLOAD covers both and EXTRACT what is left
+                long start = timings.start();
+                downloadAndExtract(archive, version, installLocation, staging, entries);
+                timings.record(LaunchTimings.DOWNLOAD, start);
+                
+                start = timings.start();
+                // Make binaries executable (Unix-like systems)
+                if (platform.getOs() != PlatformDetector.OS.WINDOWS) {
+                    makeExecutable(staging.resolve("bin"));
+                }
+                // The files were just written, so hashing them reads from the page cache
+                BlobStore store = new BlobStore(installLocation);
+                Set<String> hashes = store.deduplicate(staging);
+                if (existing == null) {
+                    if (binaries != null) {
+                        Files.createFile(staging.resolve(PARTIAL_MARKER));
+                    }
+                    touch(staging.resolve(LAST_USED_FILE));
+                    Files.move(staging, versionDir, StandardCopyOption.ATOMIC_MOVE);
+                    InstalledVersions.invalidate(installLocation);
+                } else {
+                    mergeInto(staging, existing);
+                    if (binaries == null) {
+                        Files.deleteIfExists(existing.resolve(PARTIAL_MARKER));
+                    }
+                }
+                store.addRefs(version.getVersion(), hashes);
+                timings.record(LaunchTimings.EXTRACT, start);
+            } finally {
+                if (Files.exists(staging)) {
+                    deleteDirectory(staging);
+                }
+            }
+            
+            logger.info("Successfully installed MongoDB version {}", version);
+        }
+        scheduleEviction();
+    }
+    
+    // Moves what is not installed yet from staging into the version directory
+    private static void mergeInto(Path staging, Path versionDir) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(staging)) {
+            paths = walk.filter(p -> !Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS)).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Path target = versionDir.resolve(staging.relativize(path).toString());
+            if (!Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                Files.createDirectories(target.getParent());
+                Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+    
+    // The archive entries of the given binaries, plus on Windows the DLLs next to them that older
+    // releases need to start
+    private Predicate<String> binaryEntries(Set<String> binaries) {
+        Set<String> wanted = binaries.stream()
+            .map(b -> "bin/" + PlatformDetector.getExecutableName(b, platform))
+            .collect(Collectors.toSet());
+        boolean windows = platform.getOs() == PlatformDetector.OS.WINDOWS;
+        return path -> wanted.contains(path) || (windows && path.startsWith("bin/") && path.endsWith(".dll"));
+    }
+    
+    private static InstallMode configuredInstallMode(ConfigManager configManager) {
+        String mode = System.getenv(INSTALL_MODE_ENV);
+        if (mode == null || mode.isBlank()) {
+            mode = configManager.getCustomProperty(INSTALL_MODE_PROPERTY);
+        }
+        if (mode == null || mode.isBlank()) {
+            return InstallMode.FULL;
+        }
+        try {
+            return InstallMode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring unknown install mode '{}', expected full or minimal", mode);
+            return InstallMode.FULL;
+        }
+    }
+    
+    public InstallMode getInstallMode() {
+        return installMode;
+    }
+    
+    public void setInstallMode(InstallMode installMode) {
+        this.installMode = installMode;
+    }
+    
+    public long getDiskBudgetBytes() {
+        return diskBudgetBytes;
+    }
+    
+    public void setDiskBudgetBytes(long diskBudgetBytes) {
+        this.diskBudgetBytes = diskBudgetBytes;
+    }
+    
+    // Marks the version as used by a launch just now, which is what eviction goes by, and checks
+    // the disk budget in the background
+    public void recordUse(MongoVersion version) {
+        Path versionDir = findVersionDir(version);
+        if (versionDir != null) {
+            try {
+                touch(versionDir.resolve(LAST_USED_FILE));
+            } catch (IOException e) {
+                logger.debug("Cannot record use of MongoDB {}: {}", version, e.getMessage());
+            }
+        }
+        scheduleEviction();
+    }
+    
+    private static void touch(Path file) throws IOException {
+        try {
+            Files.createFile(file);
+        } catch (FileAlreadyExistsException e) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+    }
+    
+    // A pass that is already queued will see whatever changed since it was requested
+    private void scheduleEviction() {
+        if (diskBudgetBytes <= 0 || !evictionPending.compareAndSet(false, true)) {
             return;
         }
+        EVICTION_EXECUTOR.execute(() -> {
+            evictionPending.set(false);
+            try {
+                evictToBudget();
+            } catch (IOException | UncheckedIOException e) {
+                logger.warn("Failed to evict MongoDB versions from {}: {}", versionsDir, e.getMessage());
+            }
+        });
+    }
+    
+    // Removes versions installed in the versions directory, least recently used first, until it
+    // and its blob store fit the disk budget. Versions that a running mongod or mongos was started
+    // from, and versions used within the grace period, stay even if that leaves it over budget.
+    public List<MongoVersion> evictToBudget() throws IOException {
+        List<MongoVersion> evicted = new ArrayList<>();
+        long budget = diskBudgetBytes;
+        if (budget <= 0 || !Files.isDirectory(versionsDir)) {
+            return evicted;
+        }
         
-        // Ensure we have a writable location for installation
-        Path installLocation = getWritableInstallLocation();
+        // Left behind by removals that did not get to finish
+        try (Stream<Path> dirs = Files.list(versionsDir)) {
+            List<Path> trash = dirs.filter(d -> d.getFileName().toString().startsWith(".removing-"))
+                .collect(Collectors.toList());
+            for (Path dir : trash) {
+                deleteDirectory(dir);
+            }
+        }
+        long usage = diskUsage();
+        if (usage <= budget) {
+            return evicted;
+        }
         
-        logger.info("Installing MongoDB version {} to {}", version, installLocation.getParent());
+        Set<Path> running = runningVersionDirs();
+        List<Path> candidates;
+        try (Stream<Path> dirs = Files.list(versionsDir)) {
+            candidates = dirs
+                .filter(Files::isDirectory)
+                .filter(dir -> isVersionName(dir.getFileName().toString()))
+                .sorted(Comparator.comparingLong(MongoVersionManager::lastUsedMillis))
+                .collect(Collectors.toList());
+        }
         
-        String downloadUrl = buildDownloadUrl(version);
-        Path downloadPath = downloadFile(downloadUrl, version, installLocation);
-        extractAndInstall(downloadPath, version, installLocation);
+        BlobStore store = new BlobStore(versionsDir);
+        for (Path dir : candidates) {
+            if (usage <= budget) {
+                break;
+            }
+            long lastUsed = lastUsedMillis(dir);
+            if (running.contains(dir.toRealPath()) || System.currentTimeMillis() - lastUsed < EVICTION_GRACE_MS) {
+                continue;
+            }
+            
+            MongoVersion version = new MongoVersion(dir.getFileName().toString());
+            synchronized (INSTALL_LOCKS.computeIfAbsent(version.getVersion(), v -> new Object())) {
+                deleteVersionDir(dir);
+                store.removeRefs(version.getVersion());
+            }
+            store.collectGarbage();
+            usage = diskUsage();
+            evicted.add(version);
+            logger.info("Evicted MongoDB version {}, last used {}, to stay within the {} MB budget", version,
+                FileTime.fromMillis(lastUsed), budget / (1024 * 1024));
+        }
         
-        logger.info("Successfully installed MongoDB version {}", version);
+        if (usage > budget) {
+            logger.warn("MongoDB versions in {} use {} MB, over the {} MB budget, but the rest are in use or were used recently",
+                versionsDir, usage / (1024 * 1024), budget / (1024 * 1024));
+        }
+        return evicted;
+    }
+    
+    private static boolean isVersionName(String name) {
+        try {
+            new MongoVersion(name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    private static long lastUsedMillis(Path versionDir) {
+        try {
+            Path marker = versionDir.resolve(LAST_USED_FILE);
+            return Files.getLastModifiedTime(Files.exists(marker) ? marker : versionDir).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    // Bytes taken by the versions directory and the blob store, counting each hardlinked file once
+    private long diskUsage() throws IOException {
+        Set<Object> seen = new HashSet<>();
+        long total = 0;
+        for (Path root : List.of(versionsDir, versionsDir.resolveSibling("store"))) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : paths.collect(Collectors.toList())) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    }
+                    Object key = attributes.fileKey();
+                    if (attributes.isRegularFile() && (key == null || seen.add(key))) {
+                        total += attributes.size();
+                    }
+                }
+            }
+        }
+        return total;
+    }
+    
+    // Version directories below versionsDir that a live process was started from
+    private Set<Path> runningVersionDirs() throws IOException {
+        Path root = versionsDir.toRealPath();
+        Set<Path> dirs = new HashSet<>();
+        ProcessHandle.allProcesses().forEach(process -> process.info().command().ifPresent(command -> {
+            try {
+                Path executable = Paths.get(command).normalize();
+                if (executable.startsWith(root) && executable.getNameCount() > root.getNameCount() + 1) {
+                    dirs.add(root.resolve(executable.getName(root.getNameCount())));
+                }
+            } catch (InvalidPathException e) {
+                // Not a path we could have installed
+            }
+        }));
+        return dirs;
     }
     
     private Path getWritableInstallLocation() throws IOException {
@@ -240,6 +543,26 @@ public class MongoVersionManager {
         return userLocal;
     }
     
+    // The archive the release catalog lists for this platform. Without the catalog, or for a
+    // version it does not have a build of, the URL is guessed and the checksum fetched separately.
+    private ReleaseManifest.Artifact resolveArchive(MongoVersion version) throws IOException {
+        try {
+            Optional<ReleaseManifest.Artifact> artifact = releases.get().artifact(version, platform, distribution);
+            if (artifact.isPresent()) {
+                logger.debug("Using the {} {} build of MongoDB {}", artifact.get().getTarget(), artifact.get().getArch(),
+                    version);
+                return artifact.get();
+            }
+            logger.warn("The release catalog lists no build of MongoDB {} for {}{}", version, platform,
+                distribution != null ? " (" + distribution + ")" : "");
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            logger.warn("{}; guessing the download URL of MongoDB {}", e.getMessage(), version);
+        }
+        return new ReleaseManifest.Artifact(null, null, buildDownloadUrl(version), null);
+    }
+    
     private String buildDownloadUrl(MongoVersion version) {
         String suffix = PlatformDetector.getDownloadSuffix(platform);
         String filename = String.format("mongodb-%s-%s", 
@@ -267,70 +590,81 @@ public class MongoVersionManager {
         }
     }
     
-    private Path downloadFile(String url, MongoVersion version, Path installLocation) throws IOException {
-        logger.info("Downloading MongoDB {} from {}", version, url);
-        
-        Path downloadPath = installLocation.resolve(version.getVersion() + 
-            (platform.getOs() == PlatformDetector.OS.WINDOWS ? ".zip" : ".tgz"));
-        
-        URL downloadUrl = new URL(url);
-        try (InputStream in = downloadUrl.openStream()) {
-            Files.copy(in, downloadPath, StandardCopyOption.REPLACE_EXISTING);
-        }
-        
-        return downloadPath;
-    }
-    
-    private void extractAndInstall(Path archivePath, MongoVersion version, Path installLocation) throws IOException {
-        Path versionDir = installLocation.resolve(version.getVersion());
-        Files.createDirectories(versionDir);
+    // Streams the archive through the decoder into staging as it arrives, so it is never stored
+    // and no tar process is needed. If the stream breaks, the archive is fetched again with the
+    // resumable downloader, which a later install picks up from where this one got to.
+    private void downloadAndExtract(ReleaseManifest.Artifact artifact, MongoVersion version, Path installLocation,
+            Path staging, Predicate<String> entries) throws IOException {
+        String url = artifact.getUrl();
+        boolean zip = url.endsWith(".zip");
+        Path archive = installLocation.resolve(version.getVersion() + (zip ? ".zip" : ".tgz"));
+        String expectedSha256 = artifact.getSha256() != null ? artifact.getSha256() : fetchChecksum(url);
+        String sha256;
         
-        if (archivePath.toString().endsWith(".zip")) {
-            extractZip(archivePath, versionDir);
+        if (BinaryDownloader.hasPartialDownload(archive)) {
+            logger.info("Resuming earlier download of MongoDB {}", version);
+            sha256 = downloadThenExtract(url, version, archive, zip, staging, entries);
         } else {
-            extractTarGz(archivePath, versionDir);
+            logger.info("Downloading MongoDB {} from {}", version, url);
+            try (InputStream in = downloader.openStream(URI.create(url), progressLogger(version))) {
+                sha256 = ArchiveExtractor.extract(in, zip, staging, entries);
+            } catch (InterruptedIOException | ArchiveExtractor.InvalidArchiveException e) {
+                throw e;
+            } catch (IOException e) {
+                logger.warn("Streaming download of MongoDB {} failed ({}), retrying as a resumable download", version,
+                    e.getMessage());
+                deleteDirectory(staging);
+                Files.createDirectories(staging);
+                sha256 = downloadThenExtract(url, version, archive, zip, staging, entries);
+            }
         }
         
-        // Clean up downloaded archive
-        Files.deleteIfExists(archivePath);
-        
-        // Make binaries executable (Unix-like systems)
-        if (platform.getOs() != PlatformDetector.OS.WINDOWS) {
-            makeExecutable(versionDir.resolve("bin"));
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+            throw new IOException("Checksum mismatch for MongoDB " + version + " from " + url + ": expected "
+                + expectedSha256 + ", got " + sha256);
         }
+        logger.debug("MongoDB {} archive SHA-256 {}", version, sha256);
     }
     
-    private void extractZip(Path zipPath, Path destDir) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipPath))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                Path entryPath = destDir.resolve(entry.getName());
-                
-                if (entry.isDirectory()) {
-                    Files.createDirectories(entryPath);
-                } else {
-                    Files.createDirectories(entryPath.getParent());
-                    Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-                zis.closeEntry();
-            }
+    private String downloadThenExtract(String url, MongoVersion version, Path archive, boolean zip, Path staging,
+            Predicate<String> entries) throws IOException {
+        downloader.download(URI.create(url), archive, progressLogger(version));
+        try (InputStream in = Files.newInputStream(archive)) {
+            return ArchiveExtractor.extract(in, zip, staging, entries);
+        } finally {
+            Files.deleteIfExists(archive);
         }
     }
     
-    private void extractTarGz(Path tarGzPath, Path destDir) throws IOException {
-        // For simplicity, using external tar command
-        // In production, consider using Apache Commons Compress
-        ProcessBuilder pb = new ProcessBuilder("tar", "-xzf", tarGzPath.toString(), "-C", destDir.toString(), "--strip-components=1");
+    // The download server publishes "<sha256>  <file name>" next to every archive
+    private String fetchChecksum(String url) throws IOException {
         try {
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                throw new IOException("Failed to extract tar.gz file, exit code: " + exitCode);
+            Optional<String> checksum = downloader.fetchText(URI.create(url + ".sha256"));
+            if (checksum.isPresent() && !checksum.get().isBlank()) {
+                return checksum.get().trim().split("\\s+")[0];
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Extraction interrupted", e);
+            logger.warn("No published checksum for {}, the download will not be verified", url);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            logger.warn("Could not fetch the checksum of {}, the download will not be verified: {}", url, e.getMessage());
         }
+        return null;
+    }
+    
+    // Logs every 10% of the download
+    private static BinaryDownloader.ProgressListener progressLogger(MongoVersion version) {
+        AtomicInteger lastDecile = new AtomicInteger();
+        return (bytesDone, totalBytes) -> {
+            if (totalBytes <= 0) {
+                return;
+            }
+            int decile = (int) (bytesDone * 10 / totalBytes);
+            if (decile > lastDecile.getAndAccumulate(decile, Math::max)) {
+                logger.info("Downloaded {}% of MongoDB {} ({} of {} MB)", decile * 10, version,
+                    bytesDone / (1024 * 1024), totalBytes / (1024 * 1024));
+            }
+        };
     }
     
     private void makeExecutable(Path binDir) throws IOException {
@@ -346,44 +680,64 @@ public class MongoVersionManager {
     }
     
     public MongoVersion findVersion(String versionPattern) throws IOException {
-        List<MongoVersion> installed = getInstalledVersions();
-        
-        // First try exact match in installed versions
-        for (MongoVersion version : installed) {
-            if (version.matches(versionPattern)) {
-                return version;
-            }
+        return resolveVersion(versionPattern);
+    }
+    
+    // The newest version that satisfies a VersionConstraint expression. An installed match wins
+    // over a newer one that would have to be downloaded, unless the constraint asks for the latest
+    // release. A single full version is taken as is, installed or not.
+    public MongoVersion resolveVersion(String expression) throws IOException {
+        VersionConstraint constraint = VersionConstraint.parse(expression);
+        if (constraint.getExactVersion() != null) {
+            return constraint.getExactVersion();
         }
         
-        // If not found locally, check available versions
-        List<MongoVersion> available = getAvailableVersions();
-        for (MongoVersion version : available) {
-            if (version.matches(versionPattern)) {
-                return version;
+        Optional<MongoVersion> installed = constraint.newest(getInstalledVersions());
+        if (installed.isPresent() && !constraint.isLatest()) {
+            return installed.get();
+        }
+        try {
+            Optional<MongoVersion> available = constraint.newest(releases.get().getVersions());
+            if (available.isPresent()) {
+                return available.get();
             }
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            if (installed.isEmpty()) {
+                throw e;
+            }
+            logger.warn("{}; using the newest installed match for '{}'", e.getMessage(), expression);
         }
-        
-        throw new IllegalArgumentException("No MongoDB version found matching: " + versionPattern);
+        return installed.orElseThrow(() -> new IllegalArgumentException("No MongoDB version found matching: " + expression));
     }
     
     public MongoVersion getLatestVersion(String majorMinor) throws IOException {
-        List<MongoVersion> available = getAvailableVersions();
-        
-        return available.stream()
-            .filter(v -> v.getMajorMinor().equals(majorMinor))
-            .filter(v -> !v.isPreRelease())
-            .findFirst()
+        return releases.get().latestRelease(majorMinor)
             .orElseThrow(() -> new IllegalArgumentException("No version found for " + majorMinor));
     }
     
+    // Blobs only this version used are removed from the store with it
     public void removeVersion(MongoVersion version) throws IOException {
         Path versionDir = getVersionDir(version);
         if (Files.exists(versionDir)) {
-            deleteDirectory(versionDir);
+            deleteVersionDir(versionDir);
+            BlobStore store = new BlobStore(versionDir.getParent());
+            store.removeRefs(version.getVersion());
+            store.collectGarbage();
             logger.info("Removed MongoDB version {}", version);
         }
     }
     
+    // Renamed out of the way first, so the version never looks installed with files missing, even
+    // if the process exits half way through deleting it
+    private void deleteVersionDir(Path versionDir) throws IOException {
+        Path trash = versionDir.resolveSibling(".removing-" + versionDir.getFileName() + "-" + System.nanoTime());
+        Files.move(versionDir, trash, StandardCopyOption.ATOMIC_MOVE);
+        InstalledVersions.invalidate(versionDir.getParent());
+        deleteDirectory(trash);
+    }
+    
     private void deleteDirectory(Path dir) throws IOException {
         Files.walk(dir)
             .sorted(Comparator.reverseOrder())
@@ -394,4 +748,11 @@ public class MongoVersionManager {
     public Path getVersionsDir() {
         return versionsDir;
     }
+    
+    // FULL unpacks the whole archive. MINIMAL unpacks only the binaries a launch needs and leaves
+    // the rest of the archive out, for machines that install a fresh version for every job.
+    public enum InstallMode {
+        FULL,
+        MINIMAL
+    }
 }
\ No newline at end of file
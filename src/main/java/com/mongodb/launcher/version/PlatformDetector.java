@@ -1,5 +1,12 @@
 package com.mongodb.launcher.version;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
 public class PlatformDetector {
     
     public enum OS {
@@ -33,6 +40,31 @@ public class PlatformDetector {
         }
     }
     
+    // A Linux distribution as MongoDB builds for it: the family is the prefix of the download
+    // targets (ubuntu, debian, rhel, amazon, suse) and the version comes from /etc/os-release
+    public static class Distribution {
+        private final String family;
+        private final String version;
+        
+        public Distribution(String family, String version) {
+            this.family = family;
+            this.version = version;
+        }
+        
+        public String getFamily() {
+            return family;
+        }
+        
+        public String getVersion() {
+            return version;
+        }
+        
+        @Override
+        public String toString() {
+            return family + " " + version;
+        }
+    }
+    
     public static Platform detect() {
         return new Platform(detectOS(), detectArchitecture());
     }
@@ -63,6 +95,62 @@ public class PlatformDetector {
         }
     }
     
+    // Null off Linux, and on distributions MongoDB publishes no builds for
+    public static Distribution detectDistribution() {
+        if (detectOS() != OS.LINUX) {
+            return null;
+        }
+        Map<String, String> osRelease = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(Path.of("/etc/os-release"), StandardCharsets.UTF_8)) {
+                int equals = line.indexOf('=');
+                if (equals > 0) {
+                    osRelease.put(line.substring(0, equals).trim(), line.substring(equals + 1).trim().replace("\"", ""));
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        
+        String version = osRelease.get("VERSION_ID");
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+        String family = distributionFamily(osRelease.getOrDefault("ID", ""));
+        if (family == null) {
+            // Derivatives name the distribution they follow in ID_LIKE
+            for (String like : osRelease.getOrDefault("ID_LIKE", "").split("\\s+")) {
+                family = distributionFamily(like);
+                if (family != null) {
+                    break;
+                }
+            }
+        }
+        return family != null ? new Distribution(family, version) : null;
+    }
+    
+    private static String distributionFamily(String id) {
+        switch (id) {
+            case "ubuntu":
+            case "debian":
+                return id;
+            case "rhel":
+            case "centos":
+            case "rocky":
+            case "almalinux":
+            case "ol":
+                return "rhel";
+            case "amzn":
+                return "amazon";
+            case "sles":
+            case "sles_sap":
+            case "opensuse-leap":
+                return "suse";
+            default:
+                return null;
+        }
+    }
+    
     public static String getDownloadSuffix(Platform platform) {
         switch (platform.getOs()) {
             case LINUX:
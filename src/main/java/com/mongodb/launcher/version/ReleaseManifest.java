@@ -0,0 +1,413 @@
+package com.mongodb.launcher.version;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// The catalog of every MongoDB release and its community archives, built from the downloads
+// manifest (full.json) and cached in <cache>/catalog.json. The manifest is several megabytes;
+// the cache keeps only what installs use, one [target, arch, url, sha256] array per archive with
+// the download host left out of the url. A copy younger than the TTL is used as is. An older one
+// is revalidated with If-None-Match, so an unchanged manifest costs a 304, and if the server
+// cannot be reached the stale copy is used with a warning. Lookups run against an index built
+// once per load.
+final class ReleaseManifest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReleaseManifest.class);
+    
+    static final Duration DEFAULT_TTL = Duration.ofHours(6);
+    
+    private static final String CACHE_FILE = "catalog.json";
+    // The GitHub release list cached before the catalog; it has no archives to migrate
+    private static final String LEGACY_CACHE_FILE = "releases.json";
+    private static final String DOWNLOAD_BASE = "https://fastdl.mongodb.org/";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    // After a failed refresh the stale copy is used for this long before trying again
+    private static final Duration RETRY_INTERVAL = Duration.ofMinutes(1);
+    
+    private final URI uri;
+    private final Path cacheFile;
+    private final Duration ttl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    
+    private Index index;
+    private long validUntil;
+    
+    ReleaseManifest(URI uri, Path cacheDir, Duration ttl) {
+        this.uri = uri;
+        this.cacheFile = cacheDir.resolve(CACHE_FILE);
+        this.ttl = ttl;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+    
+    synchronized Index get() throws IOException {
+        long now = System.currentTimeMillis();
+        if (index != null && now < validUntil) {
+            return index;
+        }
+        
+        Cached cached = readCache();
+        if (cached != null && now - cached.getFetchedAt() < ttl.toMillis()) {
+            return use(cached, cached.getFetchedAt() + ttl.toMillis());
+        }
+        
+        try {
+            Cached fetched = fetch(cached);
+            writeCache(fetched);
+            return use(fetched, fetched.getFetchedAt() + ttl.toMillis());
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            if (cached == null) {
+                throw new IOException("Failed to fetch the MongoDB release catalog from " + uri + ": " + describe(e), e);
+            }
+            logger.warn("Could not refresh the MongoDB release catalog ({}), using the copy from {}", describe(e),
+                Instant.ofEpochMilli(cached.getFetchedAt()));
+            return use(cached, now + RETRY_INTERVAL.toMillis());
+        }
+    }
+    
+    // Connection failures often come without a message
+    private static String describe(IOException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+    
+    private Index use(Cached cached, long validUntil) {
+        if (index == null || index.source != cached.getVersions()) {
+            index = new Index(cached.getVersions());
+        }
+        this.validUntil = validUntil;
+        return index;
+    }
+    
+    // Conditional on the cached copy's ETag; a 304 renews the copy as is
+    private Cached fetch(Cached cached) throws IOException {
+        if (cached == null) {
+            logger.info("Fetching the MongoDB release catalog...");
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .timeout(REQUEST_TIMEOUT)
+            .GET();
+        if (cached != null && cached.getEtag() != null) {
+            request.header("If-None-Match", cached.getEtag());
+        }
+        
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + uri);
+        }
+        
+        if (response.statusCode() == 304 && cached != null) {
+            logger.debug("MongoDB release catalog unchanged");
+            cached.setFetchedAt(System.currentTimeMillis());
+            return cached;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        
+        Cached fetched = new Cached();
+        fetched.setFetchedAt(System.currentTimeMillis());
+        fetched.setEtag(response.headers().firstValue("ETag").orElse(null));
+        fetched.setVersions(parseReleases(objectMapper.readTree(response.body())));
+        return fetched;
+    }
+    
+    // {"versions": [{"version": "7.0.5", "downloads": [{"target": "ubuntu2204", "arch": "x86_64",
+    // "edition": "targeted", "archive": {"url": ..., "sha256": ...}}, ...]}, ...]}
+    private static Map<String, List<String[]>> parseReleases(JsonNode manifest) {
+        Map<String, List<String[]>> versions = new LinkedHashMap<>();
+        for (JsonNode release : manifest.path("versions")) {
+            List<String[]> artifacts = new ArrayList<>();
+            for (JsonNode download : release.path("downloads")) {
+                String edition = download.path("edition").asText("base");
+                String url = download.path("archive").path("url").asText("");
+                // Enterprise builds need a license, and source tarballs have no target
+                if (!edition.equals("base") && !edition.equals("targeted") || url.isEmpty()) {
+                    continue;
+                }
+                artifacts.add(new String[] {
+                    download.path("target").asText(""),
+                    download.path("arch").asText(""),
+                    url.startsWith(DOWNLOAD_BASE) ? url.substring(DOWNLOAD_BASE.length()) : url,
+                    download.path("archive").path("sha256").asText("")
+                });
+            }
+            versions.put(release.path("version").asText(), artifacts);
+        }
+        return versions;
+    }
+    
+    private Cached readCache() {
+        try {
+            return objectMapper.readValue(Files.readAllBytes(cacheFile), Cached.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.debug("Ignoring unreadable release catalog {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+    
+    // A cache that cannot be written only costs the next process a request
+    private void writeCache(Cached cached) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), ".catalog-", null);
+            try {
+                Files.write(temp, objectMapper.writeValueAsBytes(cached));
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            Files.deleteIfExists(cacheFile.resolveSibling(LEGACY_CACHE_FILE));
+        } catch (IOException e) {
+            logger.debug("Cannot write release catalog {}: {}", cacheFile, e.getMessage());
+        }
+    }
+    
+    // Releases newest first, with the newest release of every major.minor precomputed, and the
+    // archives of each release
+    static class Index {
+        private final Map<String, List<String[]>> source;
+        private final List<MongoVersion> versions;
+        private final Map<String, MongoVersion> newestRelease = new HashMap<>();
+        
+        Index(Map<String, List<String[]>> source) {
+            this.source = source;
+            List<MongoVersion> parsed = new ArrayList<>();
+            for (String version : source.keySet()) {
+                try {
+                    parsed.add(new MongoVersion(version));
+                } catch (IllegalArgumentException e) {
+                    // Skip invalid version formats
+                    logger.debug("Skipping invalid version: {}", version);
+                }
+            }
+            parsed.sort(Collections.reverseOrder());
+            this.versions = Collections.unmodifiableList(parsed);
+            
+            for (MongoVersion version : versions) {
+                if (!version.isPreRelease()) {
+                    newestRelease.putIfAbsent(version.getMajorMinor(), version);
+                }
+            }
+        }
+        
+        List<MongoVersion> getVersions() {
+            return versions;
+        }
+        
+        Optional<MongoVersion> latestRelease(String majorMinor) {
+            return Optional.ofNullable(newestRelease.get(majorMinor));
+        }
+        
+        // The archive built for the platform. On Linux that is the build for the newest release of
+        // the distribution that is not newer than the host's, else the generic Linux build older
+        // versions have; distribution is null where it is unknown.
+        Optional<Artifact> artifact(MongoVersion version, PlatformDetector.Platform platform,
+                PlatformDetector.Distribution distribution) {
+            List<Artifact> candidates = new ArrayList<>();
+            for (String[] entry : source.getOrDefault(version.getVersion(), List.of())) {
+                String url = entry[2].contains("://") ? entry[2] : DOWNLOAD_BASE + entry[2];
+                Artifact artifact = new Artifact(entry[0], entry[1], url, entry[3].isEmpty() ? null : entry[3]);
+                if (archMatches(artifact.getArch(), platform.getArch())) {
+                    candidates.add(artifact);
+                }
+            }
+            
+            switch (platform.getOs()) {
+                case LINUX: {
+                    Artifact best = null;
+                    int[] bestVersion = null;
+                    if (distribution != null) {
+                        int[] host = hostVersion(distribution.getVersion());
+                        for (Artifact candidate : candidates) {
+                            int[] target = targetVersion(distribution.getFamily(), candidate.getTarget());
+                            if (target != null && compare(target, host) <= 0
+                                    && (bestVersion == null || compare(target, bestVersion) > 0)) {
+                                best = candidate;
+                                bestVersion = target;
+                            }
+                        }
+                    }
+                    return best != null ? Optional.of(best) : candidates.stream()
+                        .filter(a -> a.getTarget().startsWith("linux"))
+                        .findFirst();
+                }
+                case MACOS:
+                    // "macos" since 4.2, "osx" and "osx-ssl" before
+                    return candidates.stream()
+                        .filter(a -> List.of("macos", "osx", "osx-ssl").contains(a.getTarget()))
+                        .min(Comparator.comparing(a -> List.of("macos", "osx", "osx-ssl").indexOf(a.getTarget())));
+                case WINDOWS:
+                    // "windows" since 4.4, before that the newest of "windows_x86_64-2008plus-ssl" and the like
+                    return candidates.stream()
+                        .filter(a -> a.getTarget().startsWith("windows"))
+                        .max(Comparator.comparing((Artifact a) -> a.getTarget().equals("windows"))
+                            .thenComparing(Artifact::getTarget));
+                default:
+                    return Optional.empty();
+            }
+        }
+        
+        private static boolean archMatches(String arch, PlatformDetector.Architecture architecture) {
+            switch (architecture) {
+                case X86_64:
+                    return arch.equals("x86_64");
+                case ARM64:
+                    return arch.equals("arm64") || arch.equals("aarch64");
+                default:
+                    return false;
+            }
+        }
+        
+        // [major, minor] of a target such as ubuntu2204, rhel93, debian92, debian12 or amazon2023;
+        // null if the target is for another family
+        private static int[] targetVersion(String family, String target) {
+            if (!target.startsWith(family) || !target.substring(family.length()).matches("\\d*")) {
+                return null;
+            }
+            String digits = target.substring(family.length());
+            if (digits.isEmpty()) {
+                return new int[] {0, 0};
+            }
+            int minorDigits;
+            switch (family) {
+                case "ubuntu":
+                    minorDigits = 2;
+                    break;
+                case "rhel":
+                    minorDigits = 1;
+                    break;
+                case "debian":
+                    // debian81 and debian92 are for all of Debian 8 and 9, then debian10 onwards
+                    if (digits.length() == 2 && digits.charAt(0) >= '8') {
+                        digits = digits.substring(0, 1);
+                    }
+                    minorDigits = 0;
+                    break;
+                default:
+                    minorDigits = 0;
+            }
+            if (digits.length() <= minorDigits) {
+                return null;
+            }
+            int split = digits.length() - minorDigits;
+            return new int[] {
+                Integer.parseInt(digits.substring(0, split)),
+                minorDigits > 0 ? Integer.parseInt(digits.substring(split)) : 0
+            };
+        }
+        
+        // "22.04" -> [22, 4]
+        private static int[] hostVersion(String version) {
+            String[] parts = version.split("\\.");
+            int[] parsed = new int[2];
+            for (int i = 0; i < parsed.length && i < parts.length; i++) {
+                try {
+                    parsed[i] = Integer.parseInt(parts[i]);
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+            return parsed;
+        }
+        
+        private static int compare(int[] a, int[] b) {
+            return a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]);
+        }
+    }
+    
+    static class Artifact {
+        private final String target;
+        private final String arch;
+        private final String url;
+        private final String sha256;
+        
+        Artifact(String target, String arch, String url, String sha256) {
+            this.target = target;
+            this.arch = arch;
+            this.url = url;
+            this.sha256 = sha256;
+        }
+        
+        String getTarget() {
+            return target;
+        }
+        
+        String getArch() {
+            return arch;
+        }
+        
+        String getUrl() {
+            return url;
+        }
+        
+        // Null if the manifest has none
+        String getSha256() {
+            return sha256;
+        }
+    }
+    
+    static class Cached {
+        private long fetchedAt;
+        private String etag;
+        private Map<String, List<String[]>> versions = new LinkedHashMap<>();
+        
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+        
+        public void setFetchedAt(long fetchedAt) {
+            this.fetchedAt = fetchedAt;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+        
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+        
+        public Map<String, List<String[]>> getVersions() {
+            return versions;
+        }
+        
+        public void setVersions(Map<String, List<String[]>> versions) {
+            this.versions = versions;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.mongodb.launcher.version;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A MongoDB version requirement, as ClusterSpec.mongoVersion takes it: terms separated by spaces
+// that must all hold.
+//
+//   7.0.5             exactly that version
+//   7.0, 7            any 7.0.x, any 7.x
+//   >=6.0 <7.1        >, >=, <, <=, = and !=; a partial version stands for its whole series, so
+//                     <7.1 also excludes 7.1 release candidates and <=7.0 includes every 7.0.x
+//   ~7.0, ~7.0.5      the same major.minor, from the given patch on
+//   !rc               no release candidates or other pre-releases
+//   lts               releases of a major release series: x.0 from 5.0 on, even minors before that
+//   latest            the newest release in the catalog even if an older match is installed;
+//                     latest-lts is short for "latest lts"
+//
+// Parsing folds the comparisons into one interval, so finding the newest match in a list sorted
+// newest first is a binary search for the upper end followed by a scan for the first version the
+// remaining terms accept.
+public final class VersionConstraint {
+    
+    // At most nine digits a number, so every one fits in an int
+    private static final Pattern VERSION = Pattern.compile("(\\d{1,9})(?:\\.(\\d{1,9}))?(?:\\.(\\d{1,9}))?(?:-(.+))?");
+    private static final Pattern OPERATOR = Pattern.compile("(>=|<=|!=|>|<|=|~)?(.+)");
+    
+    private final String expression;
+    private MongoVersion exact;
+    private MongoVersion lower;
+    private boolean lowerInclusive;
+    private MongoVersion upper;
+    private boolean upperInclusive;
+    private final Set<MongoVersion> excluded = new HashSet<>();
+    private boolean releasesOnly;
+    private boolean ltsOnly;
+    private boolean latest;
+    
+    private VersionConstraint(String expression) {
+        this.expression = expression;
+    }
+    
+    public static VersionConstraint parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("MongoDB version constraint is empty");
+        }
+        VersionConstraint constraint = new VersionConstraint(expression.trim());
+        String[] terms = constraint.expression.split("\\s+");
+        for (String term : terms) {
+            constraint.addTerm(term);
+        }
+        // A lone full version needs no lookup at all
+        if (terms.length == 1 && constraint.lower != null && constraint.lower.equals(constraint.upper)
+                && constraint.lowerInclusive && constraint.upperInclusive) {
+            constraint.exact = constraint.lower;
+        }
+        return constraint;
+    }
+    
+    private void addTerm(String term) {
+        switch (term) {
+            case "latest":
+                latest = true;
+                return;
+            case "lts":
+                ltsOnly = true;
+                return;
+            case "latest-lts":
+                latest = true;
+                ltsOnly = true;
+                return;
+            case "!rc":
+                releasesOnly = true;
+                return;
+            default:
+                break;
+        }
+        
+        Matcher operator = OPERATOR.matcher(term);
+        Matcher version = operator.matches() ? VERSION.matcher(operator.group(2)) : null;
+        if (version == null || !version.matches()) {
+            throw invalid("unrecognized term '" + term + "'");
+        }
+        String op = operator.group(1) != null ? operator.group(1) : "=";
+        int major = Integer.parseInt(version.group(1));
+        boolean hasMinor = version.group(2) != null;
+        int minor = hasMinor ? Integer.parseInt(version.group(2)) : 0;
+        boolean full = version.group(3) != null;
+        if (!full && version.group(4) != null) {
+            throw invalid("a pre-release needs a full version in '" + term + "'");
+        }
+        
+        // A full version is a single point, parsed from the text so that "7.0.0" keeps its name;
+        // a partial one covers [floor, next floor)
+        MongoVersion point = full ? new MongoVersion(operator.group(2)) : null;
+        MongoVersion floor = floor(major, minor, full ? point.getPatch() : 0);
+        MongoVersion next = hasMinor ? floor(major, minor + 1, 0) : floor(major + 1, 0, 0);
+        switch (op) {
+            case "=":
+                if (full) {
+                    lowerBound(point, true);
+                    upperBound(point, true);
+                } else {
+                    lowerBound(floor, true);
+                    upperBound(next, false);
+                }
+                break;
+            case ">=":
+                lowerBound(full ? point : floor, true);
+                break;
+            case ">":
+                lowerBound(full ? point : next, !full);
+                break;
+            case "<":
+                upperBound(full && point.isPreRelease() ? point : floor, false);
+                break;
+            case "<=":
+                upperBound(full ? point : next, full);
+                break;
+            case "!=":
+                if (!full) {
+                    throw invalid("!= needs a full version in '" + term + "'");
+                }
+                excluded.add(point);
+                break;
+            case "~":
+                if (!hasMinor) {
+                    lowerBound(floor, true);
+                    upperBound(next, false);
+                } else {
+                    lowerBound(full ? point : floor, true);
+                    upperBound(floor(major, minor + 1, 0), false);
+                }
+                break;
+            default:
+                throw invalid("unrecognized term '" + term + "'");
+        }
+    }
+    
+    // Sorts before every release and pre-release of major.minor.patch
+    private static MongoVersion floor(int major, int minor, int patch) {
+        return new MongoVersion(major, minor, patch, "");
+    }
+    
+    private void lowerBound(MongoVersion bound, boolean inclusive) {
+        int c = lower == null ? 1 : bound.compareTo(lower);
+        if (c > 0 || c == 0 && !inclusive) {
+            lower = bound;
+            lowerInclusive = inclusive;
+        }
+    }
+    
+    private void upperBound(MongoVersion bound, boolean inclusive) {
+        int c = upper == null ? -1 : bound.compareTo(upper);
+        if (c < 0 || c == 0 && !inclusive) {
+            upper = bound;
+            upperInclusive = inclusive;
+        }
+    }
+    
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid MongoDB version constraint '" + expression + "': " + reason);
+    }
+    
+    public boolean matches(MongoVersion version) {
+        return aboveLower(version) && belowUpper(version) && !excluded.contains(version)
+            && !(releasesOnly && version.isPreRelease()) && !(ltsOnly && !isLts(version));
+    }
+    
+    // The first match in versions, which must be sorted newest first
+    public Optional<MongoVersion> newest(List<MongoVersion> versions) {
+        int low = 0;
+        int high = versions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (belowUpper(versions.get(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        for (int i = low; i < versions.size() && aboveLower(versions.get(i)); i++) {
+            if (matches(versions.get(i))) {
+                return Optional.of(versions.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private boolean aboveLower(MongoVersion version) {
+        if (lower == null) {
+            return true;
+        }
+        int c = version.compareTo(lower);
+        return c > 0 || c == 0 && lowerInclusive;
+    }
+    
+    private boolean belowUpper(MongoVersion version) {
+        if (upper == null) {
+            return true;
+        }
+        int c = version.compareTo(upper);
+        return c < 0 || c == 0 && upperInclusive;
+    }
+    
+    private static boolean isLts(MongoVersion version) {
+        if (version.isPreRelease()) {
+            return false;
+        }
+        return version.getMajor() >= 5 ? version.getMinor() == 0 : version.getMinor() % 2 == 0;
+    }
+    
+    // Set when the constraint is a single full version, e.g. "7.0.5"
+    public MongoVersion getExactVersion() {
+        return exact;
+    }
+    
+    public boolean isLatest() {
+        return latest;
+    }
+    
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,360 @@
+package com.mongodb.launcher.version;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveExtractorTest {
+    
+    private static final String TOP = "mongodb-linux-x86_64-7.0.5/";
+    
+    private Path temp;
+    private Path dest;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        temp = Files.createTempDirectory("extractor-test");
+        dest = Files.createDirectory(temp.resolve("dest"));
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(temp)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    @Test
+    void extractsBelowTheTopLevelDirectory() throws IOException {
+        byte[] archive = new Tar()
+            .directory(TOP)
+            .directory(TOP + "bin/")
+            .file(TOP + "bin/mongod", "mongod", 0755)
+            .file(TOP + "LICENSE-Community.txt", "license", 0644)
+            .gzip();
+        
+        extract(archive);
+        
+        assertEquals("mongod", read("bin/mongod"));
+        assertEquals("license", read("LICENSE-Community.txt"));
+        assertFalse(Files.exists(dest.resolve(TOP)));
+        if (Files.getFileStore(dest).supportsFileAttributeView("posix")) {
+            assertTrue(Files.isExecutable(dest.resolve("bin/mongod")));
+        }
+    }
+    
+    @Test
+    void readsGnuLongNamesAndLinks() throws IOException {
+        String longDir = TOP + "lib/" + "d".repeat(120) + "/";
+        byte[] archive = new Tar()
+            .gnuLongName(longDir + "data.txt")
+            .file(TOP + "truncated-name", "long", 0644)
+            .gnuLongLink(longDir.substring(TOP.length()) + "data.txt")
+            .symlink(TOP + "shortcut", "truncated-link")
+            .gzip();
+        
+        extract(archive);
+        
+        assertEquals("long", read("lib/" + "d".repeat(120) + "/data.txt"));
+        assertFalse(Files.exists(dest.resolve("truncated-name")));
+        assertEquals("long", read("shortcut"));
+    }
+    
+    @Test
+    void readsPaxPathAndSize() throws IOException {
+        String path = TOP + "bin/" + "p".repeat(150);
+        byte[] content = "pax sized content".getBytes(StandardCharsets.UTF_8);
+        // The ustar size field says nothing; only the pax record gives the real length
+        byte[] archive = new Tar()
+            .pax("path", path, "size", String.valueOf(content.length))
+            .entry("ignored", '0', "", content, 0, 0644)
+            .file(TOP + "after", "after", 0644)
+            .gzip();
+        
+        extract(archive);
+        
+        assertEquals("pax sized content", read("bin/" + "p".repeat(150)));
+        assertEquals("after", read("after"));
+    }
+    
+    @Test
+    void rejectsEntriesThatClimbOutOfTheDestination() {
+        byte[] archive = new Tar().file(TOP + "../../escaped", "x", 0644).gzip();
+        
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class, () -> extract(archive));
+        assertFalse(Files.exists(temp.resolve("escaped")));
+    }
+    
+    @Test
+    void keepsAbsoluteNamesInsideTheDestination() throws IOException {
+        byte[] archive = new Tar().file(temp.resolve("absolute").toString(), "x", 0644).gzip();
+        
+        extract(archive);
+        
+        assertFalse(Files.exists(temp.resolve("absolute")));
+        try (Stream<Path> paths = Files.walk(dest)) {
+            assertTrue(paths.anyMatch(p -> p.getFileName().toString().equals("absolute")));
+        }
+    }
+    
+    @Test
+    void rejectsSymlinksThatPointOutside() {
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class,
+            () -> extract(new Tar().symlink(TOP + "up", "../..").gzip()));
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class,
+            () -> extract(new Tar().symlink(TOP + "etc", "/etc").gzip()));
+    }
+    
+    @Test
+    void rejectsEntriesWrittenThroughASymlink() {
+        byte[] archive = new Tar()
+            .symlink(TOP + "lib", "bin")
+            .directory(TOP + "bin/")
+            .file(TOP + "lib/mongod", "x", 0755)
+            .gzip();
+        
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class, () -> extract(archive));
+        assertFalse(Files.exists(dest.resolve("bin/mongod")));
+    }
+    
+    @Test
+    void rejectsEntriesWrittenThroughALinkChain() {
+        // Each link stays inside on paper, but c resolves through a/b to the parent of dest
+        byte[] archive = new Tar()
+            .directory(TOP + "a/")
+            .symlink(TOP + "a/b", "..")
+            .symlink(TOP + "c", "a/b/..")
+            .file(TOP + "c/escaped", "x", 0644)
+            .gzip();
+        
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class, () -> extract(archive));
+        assertFalse(Files.exists(temp.resolve("escaped")));
+    }
+    
+    @Test
+    void replacesASymlinkRatherThanWritingThroughIt() throws IOException {
+        byte[] archive = new Tar()
+            .file(TOP + "real", "real", 0644)
+            .symlink(TOP + "mongod", "real")
+            .file(TOP + "mongod", "replaced", 0755)
+            .gzip();
+        
+        extract(archive);
+        
+        assertFalse(Files.isSymbolicLink(dest.resolve("mongod")));
+        assertEquals("replaced", read("mongod"));
+        assertEquals("real", read("real"));
+    }
+    
+    @Test
+    void createsHardlinksToExtractedFiles() throws IOException {
+        byte[] archive = new Tar()
+            .file(TOP + "bin/mongod", "mongod", 0755)
+            .hardlink(TOP + "bin/mongod-copy", TOP + "bin/mongod")
+            .gzip();
+        
+        extract(archive);
+        
+        assertTrue(Files.isSameFile(dest.resolve("bin/mongod"), dest.resolve("bin/mongod-copy")));
+        assertFalse(Files.isSymbolicLink(dest.resolve("bin/mongod-copy")));
+    }
+    
+    @Test
+    void rejectsHardlinksToMissingOrOutsideFiles() throws IOException {
+        Files.writeString(temp.resolve("secret"), "secret");
+        
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class,
+            () -> extract(new Tar().hardlink(TOP + "copy", TOP + "missing").gzip()));
+        assertThrows(ArchiveExtractor.InvalidArchiveException.class,
+            () -> extract(new Tar().hardlink(TOP + "copy", TOP + "../../secret").gzip()));
+        assertFalse(Files.exists(dest.resolve("copy"), LinkOption.NOFOLLOW_LINKS));
+    }
+    
+    @Test
+    void failsOnTruncatedArchives() {
+        byte[] tar = new Tar().file(TOP + "bin/mongod", "x".repeat(2000), 0755).tar();
+        
+        // In the middle of file data, of a header, and of the gzip stream itself
+        IOException data = assertThrows(IOException.class, () -> extract(gzip(Arrays.copyOf(tar, 1024))));
+        assertFalse(data instanceof ArchiveExtractor.InvalidArchiveException);
+        IOException header = assertThrows(IOException.class, () -> extract(gzip(Arrays.copyOf(tar, 300))));
+        assertFalse(header instanceof ArchiveExtractor.InvalidArchiveException);
+        byte[] compressed = gzip(tar);
+        assertThrows(IOException.class, () -> extract(Arrays.copyOf(compressed, compressed.length / 2)));
+    }
+    
+    @Test
+    void checksumCoversTheWholeCompressedStream() throws Exception {
+        byte[] archive = new Tar().file(TOP + "bin/mongod", "mongod", 0755).gzip();
+        byte[] trailing = Arrays.copyOf(archive, archive.length + 3);
+        
+        assertEquals(sha256(archive), extract(archive));
+        assertEquals(sha256(trailing), extract(trailing));
+        assertNotEquals(extract(archive), extract(trailing));
+        
+        byte[] other = new Tar().file(TOP + "bin/mongod", "mongoe", 0755).gzip();
+        assertNotEquals(sha256(archive), extract(other));
+    }
+    
+    @Test
+    void includeFilterWritesOnlyTheWantedEntries() throws Exception {
+        byte[] archive = new Tar()
+            .directory(TOP + "bin/")
+            .file(TOP + "bin/mongod", "mongod", 0755)
+            .file(TOP + "bin/mongos", "mongos", 0755)
+            .file(TOP + "bin/install_compass", "compass", 0755)
+            .symlink(TOP + "bin/mongod-link", "mongod")
+            .file(TOP + "README", "readme", 0644)
+            .gzip();
+        
+        String sha256 = ArchiveExtractor.extract(new ByteArrayInputStream(archive), false, dest,
+            path -> path.equals("bin/mongod"));
+        
+        try (Stream<Path> paths = Files.walk(dest)) {
+            List<String> extracted = paths.filter(p -> !Files.isDirectory(p))
+                .map(p -> dest.relativize(p).toString().replace('\\', '/'))
+                .collect(Collectors.toList());
+            assertEquals(List.of("bin/mongod"), extracted);
+        }
+        // The rest of the archive is still read for the checksum
+        assertEquals(sha256(archive), sha256);
+    }
+    
+    private String extract(byte[] archive) throws IOException {
+        return ArchiveExtractor.extract(new ByteArrayInputStream(archive), false, dest);
+    }
+    
+    private String read(String path) throws IOException {
+        return Files.readString(dest.resolve(path));
+    }
+    
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+    
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    // Writes ustar headers by hand, so each test controls exactly what the archive contains
+    private static class Tar {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        Tar directory(String name) {
+            return entry(name, '5', "", new byte[0], 0, 0755);
+        }
+        
+        Tar file(String name, String content, int mode) {
+            byte[] data = content.getBytes(StandardCharsets.UTF_8);
+            return entry(name, '0', "", data, data.length, mode);
+        }
+        
+        Tar symlink(String name, String link) {
+            return entry(name, '2', link, new byte[0], 0, 0777);
+        }
+        
+        Tar hardlink(String name, String link) {
+            return entry(name, '1', link, new byte[0], 0, 0644);
+        }
+        
+        Tar gnuLongName(String name) {
+            byte[] data = (name + "\0").getBytes(StandardCharsets.UTF_8);
+            return entry("././@LongLink", 'L', "", data, data.length, 0644);
+        }
+        
+        Tar gnuLongLink(String link) {
+            byte[] data = (link + "\0").getBytes(StandardCharsets.UTF_8);
+            return entry("././@LongLink", 'K', "", data, data.length, 0644);
+        }
+        
+        Tar pax(String... keysAndValues) {
+            StringBuilder records = new StringBuilder();
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                String record = " " + keysAndValues[i] + "=" + keysAndValues[i + 1] + "\n";
+                int length = record.length() + String.valueOf(record.length()).length();
+                if (String.valueOf(length).length() != String.valueOf(record.length()).length()) {
+                    length++;
+                }
+                records.append(length).append(record);
+            }
+            byte[] data = records.toString().getBytes(StandardCharsets.UTF_8);
+            return entry("PaxHeaders/entry", 'x', "", data, data.length, 0644);
+        }
+        
+        // size is what the header claims, which need not be the length of data
+        Tar entry(String name, char type, String link, byte[] data, long size, int mode) {
+            byte[] header = new byte[512];
+            put(header, 0, 100, name);
+            put(header, 100, 8, octal(mode, 7));
+            put(header, 108, 8, octal(0, 7));
+            put(header, 116, 8, octal(0, 7));
+            put(header, 124, 12, octal(size, 11));
+            put(header, 136, 12, octal(0, 11));
+            header[156] = (byte) type;
+            put(header, 157, 100, link);
+            put(header, 257, 6, "ustar");
+            put(header, 263, 2, "00");
+            Arrays.fill(header, 148, 156, (byte) ' ');
+            long checksum = 0;
+            for (byte b : header) {
+                checksum += b & 0xff;
+            }
+            put(header, 148, 8, octal(checksum, 6) + "\0 ");
+            
+            out.writeBytes(header);
+            out.writeBytes(data);
+            out.writeBytes(new byte[(512 - data.length % 512) % 512]);
+            return this;
+        }
+        
+        byte[] tar() {
+            out.writeBytes(new byte[1024]);
+            return out.toByteArray();
+        }
+        
+        byte[] gzip() {
+            return ArchiveExtractorTest.gzip(tar());
+        }
+        
+        private static String octal(long value, int digits) {
+            String octal = Long.toOctalString(value);
+            return "0".repeat(digits - octal.length()) + octal;
+        }
+        
+        // Truncates to fit, the way a ustar name field cuts off a long name
+        private static void put(byte[] header, int offset, int length, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.mongodb.launcher.version;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryDownloaderTest {
+    
+    private static final int MB = 1024 * 1024;
+    private static final String ETAG = "\"v1\"";
+    
+    private HttpServer server;
+    private Path dir;
+    private byte[] body;
+    private boolean acceptRanges;
+    private boolean changed;
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> validators = Collections.synchronizedList(new ArrayList<>());
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("downloader-test");
+        body = new byte[12 * MB];
+        new Random(42).nextBytes(body);
+        acceptRanges = true;
+        
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/file", this::serve);
+        server.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    @Test
+    void downloadsInParallelRanges() throws IOException {
+        Path target = dir.resolve("file.tgz");
+        downloader().download(uri(), target, BinaryDownloader.ProgressListener.NONE);
+        
+        assertArrayEquals(body, Files.readAllBytes(target));
+        assertEquals(List.of("bytes=0-4194303", "bytes=4194304-8388607", "bytes=8388608-12582911"), sorted(ranges));
+        assertEquals(List.of(ETAG, ETAG, ETAG), validators);
+        assertNoLeftovers(target);
+    }
+    
+    @Test
+    void resumesEachRangeWhereItStopped() throws IOException {
+        Path target = dir.resolve("file.tgz");
+        BinaryDownloader.Manifest manifest = new BinaryDownloader.Manifest();
+        manifest.setUrl(uri().toString());
+        manifest.setLength(body.length);
+        manifest.setEtag(ETAG);
+        manifest.getSegments().add(segment(0, 6 * MB - 1, 1000));
+        manifest.getSegments().add(segment(6 * MB, body.length - 1, 6 * MB));
+        
+        // Only what the manifest says was written is real; the rest must be fetched again
+        byte[] part = new byte[body.length];
+        System.arraycopy(body, 0, part, 0, 1000);
+        System.arraycopy(body, 6 * MB, part, 6 * MB, 6 * MB);
+        Files.write(dir.resolve("file.tgz.part"), part);
+        Files.write(dir.resolve("file.tgz.part.json"), new ObjectMapper().writeValueAsBytes(manifest));
+        assertTrue(BinaryDownloader.hasPartialDownload(target));
+        
+        downloader().download(uri(), target, BinaryDownloader.ProgressListener.NONE);
+        
+        assertArrayEquals(body, Files.readAllBytes(target));
+        // The second range was already complete
+        assertEquals(List.of("bytes=1000-6291455"), ranges);
+        assertFalse(BinaryDownloader.hasPartialDownload(target));
+        assertNoLeftovers(target);
+    }
+    
+    @Test
+    void discardsThePartialDownloadWhenIfRangeGetsTheWholeFile() {
+        changed = true;
+        Path target = dir.resolve("file.tgz");
+        
+        assertThrows(IOException.class,
+            () -> downloader().download(uri(), target, BinaryDownloader.ProgressListener.NONE));
+        
+        assertFalse(Files.exists(target));
+        assertNoLeftovers(target);
+    }
+    
+    @Test
+    void downloadsInOnePieceWithoutAcceptRanges() throws IOException {
+        acceptRanges = false;
+        Path target = dir.resolve("file.tgz");
+        downloader().download(uri(), target, BinaryDownloader.ProgressListener.NONE);
+        
+        assertArrayEquals(body, Files.readAllBytes(target));
+        assertEquals(List.of(), ranges);
+        assertNoLeftovers(target);
+    }
+    
+    @Test
+    void concurrentDownloadsOfOneFileDoNotShareThePartFile() throws Exception {
+        Path target = dir.resolve("file.tgz");
+        List<CompletableFuture<Void>> downloads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            downloads.add(CompletableFuture.runAsync(() -> {
+                try {
+                    downloader().download(uri(), target, BinaryDownloader.ProgressListener.NONE);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        CompletableFuture.allOf(downloads.toArray(new CompletableFuture<?>[0])).get();
+        
+        assertArrayEquals(body, Files.readAllBytes(target));
+        assertNoLeftovers(target);
+    }
+    
+    private void serve(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (acceptRanges) {
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        }
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        byte[] content = body;
+        int status = 200;
+        if (range != null && acceptRanges) {
+            ranges.add(range);
+            validators.add(exchange.getRequestHeaders().getFirst("If-Range"));
+            if (!changed) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int from = Integer.parseInt(bounds[0]);
+                int to = Integer.parseInt(bounds[1]);
+                content = Arrays.copyOfRange(body, from, to + 1);
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + body.length);
+                status = 206;
+            }
+        }
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+    
+    private BinaryDownloader downloader() {
+        return new BinaryDownloader(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), 4);
+    }
+    
+    private URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/file");
+    }
+    
+    private static BinaryDownloader.Segment segment(long start, long end, long written) {
+        BinaryDownloader.Segment segment = new BinaryDownloader.Segment();
+        segment.setStart(start);
+        segment.setEnd(end);
+        segment.setWritten(written);
+        return segment;
+    }
+    
+    private static List<String> sorted(List<String> ranges) {
+        return ranges.stream()
+            .sorted(Comparator.comparingLong(r -> Long.parseLong(r.substring("bytes=".length(), r.indexOf('-')))))
+            .collect(Collectors.toList());
+    }
+    
+    private static void assertNoLeftovers(Path target) {
+        assertFalse(Files.exists(target.resolveSibling("file.tgz.part")));
+        assertFalse(Files.exists(target.resolveSibling("file.tgz.part.json")));
+    }
+}
\ No newline at end of file
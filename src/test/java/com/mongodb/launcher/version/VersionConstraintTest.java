@@ -0,0 +1,170 @@
+package com.mongodb.launcher.version;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionConstraintTest {
+    
+    // Newest first, as the catalog hands them to newest()
+    private static final List<MongoVersion> CATALOG = versions(
+        "8.0.1", "8.0.0", "8.0.0-rc3", "7.3.2", "7.1.0", "7.1.0-rc0", "7.0.12", "7.0.5", "7.0.0",
+        "6.3.1", "6.0.15", "6.0.0", "5.0.26", "4.4.29", "4.2.25", "3.6.23");
+    
+    @Test
+    void rangeAcrossSeries() {
+        VersionConstraint constraint = VersionConstraint.parse(">=6.0 <7.1");
+        
+        assertEquals(Optional.of(v("7.0.12")), constraint.newest(CATALOG));
+        assertTrue(constraint.matches(v("6.0.0")));
+        assertFalse(constraint.matches(v("5.0.26")));
+        // <7.1 stands for the whole 7.1 series, release candidates included
+        assertFalse(constraint.matches(v("7.1.0-rc0")));
+        assertFalse(constraint.matches(v("7.1.0")));
+    }
+    
+    @Test
+    void partialVersionsCoverTheirSeries() {
+        assertEquals(Optional.of(v("7.0.12")), VersionConstraint.parse("7.0").newest(CATALOG));
+        assertEquals(Optional.of(v("7.3.2")), VersionConstraint.parse("7").newest(CATALOG));
+        assertEquals(Optional.of(v("7.0.12")), VersionConstraint.parse("<=7.0").newest(CATALOG));
+        assertEquals(Optional.of(v("6.3.1")), VersionConstraint.parse("<7").newest(CATALOG));
+    }
+    
+    @Test
+    void tildeStaysWithinTheMinorSeries() {
+        assertEquals(Optional.of(v("7.0.12")), VersionConstraint.parse("~7.0").newest(CATALOG));
+        
+        VersionConstraint fromPatch = VersionConstraint.parse("~7.0.5");
+        assertTrue(fromPatch.matches(v("7.0.5")));
+        assertTrue(fromPatch.matches(v("7.0.12")));
+        assertFalse(fromPatch.matches(v("7.0.0")));
+        assertFalse(fromPatch.matches(v("7.1.0")));
+        
+        assertEquals(Optional.of(v("7.3.2")), VersionConstraint.parse("~7").newest(CATALOG));
+    }
+    
+    @Test
+    void notRcCombinesWithBounds() {
+        assertEquals(Optional.of(v("8.0.0-rc3")), VersionConstraint.parse("<=8.0.0-rc3").newest(CATALOG));
+        assertEquals(Optional.of(v("7.3.2")), VersionConstraint.parse("<=8.0.0-rc3 !rc").newest(CATALOG));
+        
+        assertTrue(VersionConstraint.parse("7.1").matches(v("7.1.0-rc0")));
+        VersionConstraint releases = VersionConstraint.parse("!rc 7.1");
+        assertFalse(releases.matches(v("7.1.0-rc0")));
+        assertTrue(releases.matches(v("7.1.0")));
+    }
+    
+    @Test
+    void exclusionsSkipToTheNextMatch() {
+        assertEquals(Optional.of(v("7.0.5")), VersionConstraint.parse("~7.0 !=7.0.12").newest(CATALOG));
+    }
+    
+    @Test
+    void ltsMeansDotZeroFromFiveAndEvenMinorsBefore() {
+        VersionConstraint lts = VersionConstraint.parse("lts");
+        assertEquals(Optional.of(v("8.0.1")), lts.newest(CATALOG));
+        assertFalse(lts.isLatest());
+        assertFalse(lts.matches(v("7.3.2")));
+        assertFalse(lts.matches(v("8.0.0-rc3")));
+        assertTrue(lts.matches(v("4.4.29")));
+        assertFalse(lts.matches(v("4.3.6")));
+        
+        assertEquals(Optional.of(v("7.0.12")), VersionConstraint.parse("lts <8.0").newest(CATALOG));
+        assertEquals(Optional.of(v("6.0.15")), VersionConstraint.parse("lts 6").newest(CATALOG));
+        assertEquals(Optional.of(v("4.4.29")), VersionConstraint.parse("lts <5.0").newest(CATALOG));
+    }
+    
+    @Test
+    void latestAndLatestLts() {
+        VersionConstraint latest = VersionConstraint.parse("latest");
+        assertTrue(latest.isLatest());
+        assertEquals(Optional.of(v("8.0.1")), latest.newest(CATALOG));
+        assertTrue(latest.matches(v("8.0.0-rc3")));
+        
+        VersionConstraint latestLts = VersionConstraint.parse("latest-lts");
+        assertTrue(latestLts.isLatest());
+        assertFalse(latestLts.matches(v("7.3.2")));
+        assertEquals(Optional.of(v("7.0.12")), VersionConstraint.parse("latest-lts <8").newest(CATALOG));
+        
+        VersionConstraint latestSeries = VersionConstraint.parse("latest 7.0");
+        assertTrue(latestSeries.isLatest());
+        assertEquals(Optional.of(v("7.0.12")), latestSeries.newest(CATALOG));
+        assertFalse(VersionConstraint.parse("7.0").isLatest());
+    }
+    
+    @Test
+    void onlyALoneFullVersionIsExact() {
+        assertEquals(v("7.0.5"), VersionConstraint.parse("7.0.5").getExactVersion());
+        assertEquals("7.0.0", VersionConstraint.parse("7.0.0").getExactVersion().getVersion());
+        assertEquals(v("8.0.0-rc3"), VersionConstraint.parse("=8.0.0-rc3").getExactVersion());
+        assertNull(VersionConstraint.parse("7.0").getExactVersion());
+        assertNull(VersionConstraint.parse("7.0.5 !rc").getExactVersion());
+        assertNull(VersionConstraint.parse(">=7.0.5").getExactVersion());
+    }
+    
+    @Test
+    void contradictoryRangesMatchNothing() {
+        for (String expression : List.of(">=7.0 <6.0", "7.0 8.0", ">7.0.5 <7.0.5", "~7.0 >=7.1", "lts 7.3")) {
+            VersionConstraint constraint = VersionConstraint.parse(expression);
+            assertEquals(Optional.empty(), constraint.newest(CATALOG), expression);
+            assertTrue(CATALOG.stream().noneMatch(constraint::matches), expression);
+        }
+    }
+    
+    @Test
+    void newestAtTheEdgesOfTheList() {
+        assertEquals(Optional.empty(), VersionConstraint.parse("7.0").newest(List.of()));
+        assertEquals(Optional.empty(), VersionConstraint.parse("9").newest(CATALOG));
+        assertEquals(Optional.empty(), VersionConstraint.parse("<3").newest(CATALOG));
+        assertEquals(Optional.empty(), VersionConstraint.parse("!rc").newest(versions("8.0.0-rc1", "8.0.0-rc0")));
+        
+        assertEquals(Optional.of(v("8.0.1")), VersionConstraint.parse(">=8.0.1").newest(CATALOG));
+        assertEquals(Optional.of(v("3.6.23")), VersionConstraint.parse("3.6").newest(CATALOG));
+        assertEquals(Optional.of(v("3.6.23")), VersionConstraint.parse("<=3.6.23").newest(CATALOG));
+        assertEquals(Optional.of(v("7.0.5")), VersionConstraint.parse("7.0.5").newest(versions("7.0.5")));
+        assertEquals(Optional.empty(), VersionConstraint.parse("7.0.4").newest(versions("7.0.5")));
+    }
+    
+    @Test
+    void invalidInputSaysWhatIsWrong() {
+        assertEquals("MongoDB version constraint is empty",
+            assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse("  ")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> VersionConstraint.parse(null));
+        
+        assertInvalid("seven", "unrecognized term 'seven'");
+        assertInvalid(">=7.0 <7.x", "unrecognized term '<7.x'");
+        assertInvalid(">=", "unrecognized term '>='");
+        assertInvalid("~", "unrecognized term '~'");
+        assertInvalid("99999999999", "unrecognized term '99999999999'");
+        assertInvalid("7.0-rc1", "a pre-release needs a full version in '7.0-rc1'");
+        assertInvalid("!=7.0", "!= needs a full version in '!=7.0'");
+    }
+    
+    private static void assertInvalid(String expression, String reason) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> VersionConstraint.parse(expression));
+        assertEquals("Invalid MongoDB version constraint '" + expression + "': " + reason, e.getMessage());
+    }
+    
+    private static MongoVersion v(String version) {
+        return new MongoVersion(version);
+    }
+    
+    private static List<MongoVersion> versions(String... versions) {
+        return Arrays.stream(versions)
+            .map(MongoVersion::new)
+            .sorted(Comparator.reverseOrder())
+            .collect(Collectors.toList());
+    }
+}
\ No newline at end of file